@@ -0,0 +1,29 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+/**
+ * Поднимает приложение без веб-сервера на отдельной in-memory H2 и заполняет её данными.
+ */
+public class BenchmarkContext {
+    public static ConfigurableApplicationContext start(int users, int items, int bookings) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+
+        new BenchmarkDataSeeder(context.getBean(JdbcTemplate.class)).seed(users, items, bookings);
+        if (context.getBean(ItemSearchEngine.class) instanceof InMemoryItemSearchEngine searchEngine) {
+            searchEngine.rebuild();
+        }
+        return context;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет пустую схему синтетическими пользователями, вещами, бронированиями и комментариями.
+ * Идентификаторы получаются последовательными, начиная с 1.
+ */
+public class BenchmarkDataSeeder {
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] WORDS = {"дрель", "отвёртка", "лестница", "палатка", "велосипед", "пила",
+            "аккумуляторная", "складная", "туристическая", "строительная", "детский", "электрическая"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    public BenchmarkDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void seed(int users, int items, int bookings) {
+        LocalDateTime now = LocalDateTime.now();
+
+        insertInBatches("INSERT INTO users (name, email) VALUES (?, ?)", users,
+                i -> new Object[]{"user" + i, "user" + i + "@bench.ru"});
+        insertInBatches("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)", items,
+                i -> new Object[]{word() + " " + i, word() + " " + word() + " " + word(), i % 10 != 0,
+                        1 + i % users});
+        insertInBatches("INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status, phase) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", bookings,
+                i -> {
+                    int itemIndex = random.nextInt(items);
+                    LocalDateTime start = now.plusHours(random.nextInt(24 * 365 * 2) - 24 * 365);
+                    LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+                    return new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemIndex + 1,
+                            1 + random.nextInt(users), 1 + itemIndex % users,
+                            random.nextInt(4) == 0 ? "WAITING" : "APPROVED",
+                            BookingPhase.of(start, end, now).name()};
+                });
+        insertInBatches("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)", items,
+                i -> new Object[]{word() + " " + word(), 1 + random.nextInt(items), 1 + random.nextInt(users),
+                        Timestamp.valueOf(now.minusMinutes(random.nextInt(100_000)))});
+    }
+
+    private void insertInBatches(String sql, int count, RowFactory rowFactory) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(rowFactory.create(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private interface RowFactory {
+        Object[] create(int index);
+    }
+}
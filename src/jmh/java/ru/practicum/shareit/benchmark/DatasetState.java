@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Общий для сервисных бенчмарков контекст с заполненной базой. Размер задаётся параметрами, например
+ * {@code -Djmh.args="-p users=1000 -p items=10000 -p bookings=100000"}.
+ */
+@State(Scope.Benchmark)
+public class DatasetState {
+    @Param("10000")
+    public int users;
+    @Param("100000")
+    public int items;
+    @Param("1000000")
+    public int bookings;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(users, items, bookings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
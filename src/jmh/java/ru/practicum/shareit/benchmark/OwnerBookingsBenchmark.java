@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает выборку бронирований владельца через соединение с items и через денормализованный owner_id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OwnerBookingsBenchmark {
+    private static final String JOIN_QUERY = "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE i.owner_id = ? ORDER BY b.start_date DESC, b.id DESC LIMIT 20";
+    private static final String DENORMALIZED_QUERY = "SELECT b.* FROM bookings b " +
+            "WHERE b.owner_id = ? ORDER BY b.start_date DESC, b.id DESC LIMIT 20";
+
+    @Benchmark
+    public List<Map<String, Object>> joinItems(DatasetState dataset) {
+        return dataset.context.getBean(JdbcTemplate.class).queryForList(JOIN_QUERY, randomOwner(dataset));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> denormalizedOwner(DatasetState dataset) {
+        return dataset.context.getBean(JdbcTemplate.class).queryForList(DENORMALIZED_QUERY, randomOwner(dataset));
+    }
+
+    @Benchmark
+    public List<BookingFullDto> getOwnerBookings(DatasetState dataset) {
+        return dataset.context.getBean(BookingService.class)
+                .getOwnerBookings(randomOwner(dataset), BookingState.ALL, 0, 20);
+    }
+
+    private int randomOwner(DatasetState dataset) {
+        return 1 + ThreadLocalRandom.current().nextInt(dataset.users);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchRowResult {
+    private Integer index;
+    private Integer id;
+    private String error;
+
+    public static BatchRowResult created(int index, Integer id) {
+        return new BatchRowResult(index, id, null);
+    }
+
+    public static BatchRowResult failed(int index, String error) {
+        return new BatchRowResult(index, null, error);
+    }
+}
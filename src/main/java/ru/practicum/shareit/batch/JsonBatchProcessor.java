@@ -0,0 +1,109 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Читает JSON-массив строк по одной, передаёт их обработчику пачками и сразу пишет
+ * результаты по каждой строке в ответ, не держа в памяти весь запрос.
+ */
+public class JsonBatchProcessor {
+    public static <T> void process(ObjectMapper objectMapper, InputStream input, OutputStream output,
+                                   Class<T> rowType, int batchSize, BatchHandler<T> handler) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Ожидается JSON-массив");
+            }
+
+            JsonGenerator generator = objectMapper.createGenerator(output);
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+
+            List<T> batch = new ArrayList<>(batchSize);
+            int firstIndex = 0;
+            BatchRowResult parseError = null;
+            try {
+                JsonToken token = parser.nextToken();
+                while (token != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Неожиданный конец массива");
+                    }
+                    // Синтаксическая ошибка прерывает разбор, а строка неподходящего типа отклоняется отдельно
+                    TreeNode node = parser.readValueAsTree();
+                    T row;
+                    try {
+                        row = objectMapper.treeToValue(node, rowType);
+                    } catch (JsonProcessingException e) {
+                        if (!batch.isEmpty()) {
+                            writeResults(generator, handler.handle(firstIndex, batch));
+                            firstIndex += batch.size();
+                            batch.clear();
+                        }
+                        generator.writeObject(BatchRowResult.failed(firstIndex++,
+                                "Некорректная строка: " + e.getOriginalMessage()));
+                        token = parser.nextToken();
+                        continue;
+                    }
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        writeResults(generator, handler.handle(firstIndex, batch));
+                        firstIndex += batch.size();
+                        batch.clear();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                parseError = BatchRowResult.failed(firstIndex + batch.size(),
+                        "Некорректный JSON: " + e.getOriginalMessage());
+            }
+
+            if (!batch.isEmpty()) {
+                writeResults(generator, handler.handle(firstIndex, batch));
+            }
+            if (parseError != null) {
+                generator.writeObject(parseError);
+            }
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+
+    public static <T> String validationError(Validator validator, T row) {
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void writeResults(JsonGenerator generator, List<BatchRowResult> results) throws IOException {
+        for (BatchRowResult result : results) {
+            generator.writeObject(result);
+        }
+        generator.flush();
+    }
+
+    @FunctionalInterface
+    public interface BatchHandler<T> {
+        List<BatchRowResult> handle(int firstIndex, List<T> rows);
+    }
+}
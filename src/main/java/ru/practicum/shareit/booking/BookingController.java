@@ -1,12 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.util.Constants;
+import ru.practicum.shareit.util.ETags;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * TODO Sprint add-bookings.
@@ -15,7 +27,11 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
 public class BookingController {
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final CacheControl BOOKING_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingFullDto createBooking(@RequestBody BookingDto bookingDto,
@@ -31,21 +47,106 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, status, userId);
     }
 
+    @PatchMapping
+    public List<BookingFullDto> updateBookingStatuses(@RequestBody List<Integer> bookingIds,
+                                                      @RequestParam Boolean approved,
+                                                      @RequestHeader(Constants.HEAD) Integer userId) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        return bookingService.updateBookingStatuses(bookingIds, status, userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingFullDto getBookingById(@PathVariable Integer bookingId,
-                                         @RequestHeader(Constants.HEAD) Integer userId) {
-        return bookingService.getBookingById(bookingId, userId);
+    public ResponseEntity<BookingFullDto> getBookingById(@PathVariable Integer bookingId,
+                                                         @RequestHeader(Constants.HEAD) Integer userId,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                 required = false) String ifNoneMatch) {
+        String etag = bookingService.getBookingETag(bookingId, userId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(BOOKING_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(BOOKING_CACHE_CONTROL)
+                .body(bookingService.getBookingById(bookingId, userId));
     }
 
     @GetMapping
     public List<BookingFullDto> getUserBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                @RequestParam(required = false) Integer from,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime cursorStart,
+                                                @RequestParam(required = false) Integer cursorId,
                                                 @RequestHeader(Constants.HEAD) Integer userId) {
-        return bookingService.getUserBookings(userId, BookingState.valueOf(state));
+        if (cursorStart != null || cursorId != null) {
+            return bookingService.getUserBookingsAfter(
+                    userId, BookingState.valueOf(state), cursorStart, cursorId, size);
+        }
+        return bookingService.getUserBookings(userId, BookingState.valueOf(state), from, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestHeader(Constants.HEAD) Integer userId) {
+        BookingState bookingState = BookingState.valueOf(state);
+        return streamBookings((cursorStart, cursorId) -> bookingService.getUserBookingsAfter(
+                userId, bookingState, cursorStart, cursorId, EXPORT_PAGE_SIZE));
     }
 
     @GetMapping("/owner")
     public List<BookingFullDto> getOwnerBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                 @RequestParam(required = false) Integer from,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime cursorStart,
+                                                 @RequestParam(required = false) Integer cursorId,
                                                  @RequestHeader(Constants.HEAD) Integer userId) {
-        return bookingService.getOwnerBookings(userId, BookingState.valueOf(state));
+        if (cursorStart != null || cursorId != null) {
+            return bookingService.getOwnerBookingsAfter(
+                    userId, BookingState.valueOf(state), cursorStart, cursorId, size);
+        }
+        return bookingService.getOwnerBookings(userId, BookingState.valueOf(state), from, size);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                                     @RequestHeader(Constants.HEAD) Integer userId) {
+        BookingState bookingState = BookingState.valueOf(state);
+        return streamBookings((cursorStart, cursorId) -> bookingService.getOwnerBookingsAfter(
+                userId, bookingState, cursorStart, cursorId, EXPORT_PAGE_SIZE));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamBookings(
+            BiFunction<LocalDateTime, Integer, List<BookingFullDto>> pageLoader) {
+        List<BookingFullDto> firstPage = pageLoader.apply(null, null);
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.createGenerator(outputStream);
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+            List<BookingFullDto> page = firstPage;
+            while (!page.isEmpty()) {
+                for (BookingFullDto booking : page) {
+                    generator.writeObject(booking);
+                }
+                generator.flush();
+                if (page.size() < EXPORT_PAGE_SIZE) {
+                    break;
+                }
+                BookingFullDto last = page.get(page.size() - 1);
+                page = pageLoader.apply(last.getStart(), last.getId());
+            }
+            generator.writeEndArray();
+            generator.close();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking.index")
+public class BookingIndexProperties {
+    private long maximumSize = 10_000;
+    // Отклонение бронирования на другом узле этот узел узнает не позже, чем через этот срок
+    private Duration expireAfterWrite = Duration.ofMinutes(1);
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.config.ReadReplicaContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Занятые интервалы вещей (бронирования APPROVED и WAITING), слитые в непересекающиеся блоки start -> end.
+ * Интервалы вещи загружаются из БД при первом обращении и сбрасываются, если бронирование освобождает время.
+ * Отклонения на других узлах сюда не попадают, поэтому найденное пересечение перепроверяется в БД, а записи
+ * ограничены по числу и времени жизни.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final List<BookingStatus> ACTIVE = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Integer, NavigableMap<LocalDateTime, LocalDateTime>> busyBlocks;
+    // Загрузка, во время которой сбросили вещь, могла прочитать устаревшие интервалы и не кладётся в кэш
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BookingIntervalIndex(BookingIndexProperties properties, BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        this.busyBlocks = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+    }
+
+    public boolean overlaps(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> blocks = blocks(itemId);
+        boolean cachedOverlap;
+        synchronized (blocks) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = blocks.lowerEntry(end);
+            cachedOverlap = before != null && before.getValue().isAfter(start);
+        }
+        if (!cachedOverlap) {
+            return false;
+        }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, ACTIVE, end, start)) {
+            return true;
+        }
+        invalidate(itemId);
+        return false;
+    }
+
+    public void add(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        busyBlocks.asMap().computeIfPresent(itemId, (id, blocks) -> {
+            synchronized (blocks) {
+                merge(blocks, start, end);
+            }
+            return blocks;
+        });
+        afterCompletion(itemId, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    public void release(Integer itemId) {
+        if (!afterCompletion(itemId, TransactionSynchronization.STATUS_COMMITTED)) {
+            invalidate(itemId);
+        }
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> blocks(Integer itemId) {
+        NavigableMap<LocalDateTime, LocalDateTime> blocks = busyBlocks.getIfPresent(itemId);
+        if (blocks != null) {
+            return blocks;
+        }
+        // Запрос идёт вне блокировок кэша: параллельные загрузки одной вещи допустимы, в кэше останется первая
+        long generation = invalidations.get();
+        NavigableMap<LocalDateTime, LocalDateTime> loaded = ReadReplicaContext.onPrimary(() -> load(itemId));
+        if (invalidations.get() != generation || ReadReplicaContext.isReplicaRead()) {
+            return loaded;
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> existing = busyBlocks.asMap().putIfAbsent(itemId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (invalidations.get() != generation) {
+            busyBlocks.asMap().remove(itemId, loaded);
+        }
+        return loaded;
+    }
+
+    private void invalidate(Integer itemId) {
+        invalidations.incrementAndGet();
+        busyBlocks.invalidate(itemId);
+    }
+
+    private boolean afterCompletion(Integer itemId, int invalidateOnStatus) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == invalidateOnStatus) {
+                    invalidate(itemId);
+                }
+            }
+        });
+        return true;
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> load(Integer itemId) {
+        NavigableMap<LocalDateTime, LocalDateTime> blocks = new TreeMap<>();
+        for (Booking booking : bookingRepository.findActiveByItemIdAndEndAfter(itemId, LocalDateTime.now())) {
+            merge(blocks, booking.getStart(), booking.getEnd());
+        }
+        return blocks;
+    }
+
+    private void merge(NavigableMap<LocalDateTime, LocalDateTime> blocks, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        while (!blocks.isEmpty() && !blocks.firstEntry().getValue().isAfter(now)) {
+            blocks.pollFirstEntry();
+        }
+
+        Map.Entry<LocalDateTime, LocalDateTime> before = blocks.floorEntry(start);
+        if (before != null && !before.getValue().isBefore(start)) {
+            start = before.getKey();
+            end = before.getValue().isAfter(end) ? before.getValue() : end;
+            blocks.remove(before.getKey());
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> next = blocks.ceilingEntry(start);
+        while (next != null && !next.getKey().isAfter(end)) {
+            end = next.getValue().isAfter(end) ? next.getValue() : end;
+            blocks.remove(next.getKey());
+            next = blocks.ceilingEntry(start);
+        }
+        blocks.put(start, end);
+    }
+}
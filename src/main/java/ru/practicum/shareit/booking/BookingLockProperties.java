@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "shareit.booking.lock")
+public class BookingLockProperties {
+    @NotNull
+    private Mode mode = Mode.DATABASE;
+    @Min(1)
+    private int stripes = 64;
+
+    public enum Mode {
+        // Только полосы в памяти: годится для одного узла, где пересечения ловит ещё и ограничение БД
+        LOCAL,
+        // Полосы плюс SELECT ... FOR UPDATE строки вещи: сериализует бронирования и между узлами
+        DATABASE
+    }
+}
@@ -4,10 +4,14 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 public class BookingMapper {
     public static BookingFullDto mapToBookingFullDto(Booking booking) {
         BookingFullDto dto = new BookingFullDto();
@@ -32,13 +36,41 @@ public class BookingMapper {
         return dto;
     }
 
-    public static Booking mapToBooking(BookingDto bookingDto, Item item, User booker) {
+    // Ответ на создание собирается из снимков, чтобы не инициализировать ссылки getReferenceById
+    public static BookingFullDto mapToBookingFullDto(Booking booking, ItemSnapshot item, UserSnapshot booker) {
+        BookingFullDto dto = new BookingFullDto();
+        dto.setId(booking.getId());
+        dto.setStart(booking.getStart());
+        dto.setEnd(booking.getEnd());
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(item.getId());
+        itemDto.setName(item.getName());
+        itemDto.setDescription(item.getDescription());
+        itemDto.setAvailable(item.getAvailable());
+        dto.setItem(itemDto);
+
+        dto.setBooker(new UserDto(booker.getId(), booker.getName(), booker.getEmail()));
+        dto.setStatus(booking.getStatus());
+        return dto;
+    }
+
+    public static ItemDto.BookingShortDto mapToBookingShortDto(Booking booking) {
+        ItemDto.BookingShortDto dto = new ItemDto.BookingShortDto();
+        dto.setId(booking.getId());
+        dto.setBookerId(booking.getBooker().getId());
+        return dto;
+    }
+
+    public static Booking mapToBooking(BookingDto bookingDto, Item item, User booker, Integer ownerId) {
         Booking booking = new Booking();
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(ownerId);
         booking.setStatus(BookingStatus.WAITING);
+        booking.setPhase(BookingPhase.of(bookingDto.getStart(), bookingDto.getEnd(), LocalDateTime.now()));
         return booking;
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Хранимая фаза бронирования. Обновляется фоновым проходом и может отставать от реального
+ * времени, но только в одну сторону: FUTURE → CURRENT → PAST.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        return start.isBefore(now) ? CURRENT : FUTURE;
+    }
+}
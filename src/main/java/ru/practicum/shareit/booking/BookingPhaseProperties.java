@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking.phase")
+public class BookingPhaseProperties {
+    private boolean sweepEnabled = true;
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private int batchSize = 1000;
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Переводит бронирования между фазами, когда наступает их начало или конец. Обновление идёт
+ * пачками, каждая в своей транзакции, чтобы не держать долгих блокировок на bookings.
+ * Сначала закрываются завершившиеся, затем начавшиеся бронирования — так в CURRENT не попадает
+ * то, что уже закончилось.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.phase.sweep-enabled", havingValue = "true", matchIfMissing = true)
+public class BookingPhaseSweeper {
+    private static final String MARK_PAST = "UPDATE bookings SET phase = 'PAST' WHERE id IN (" +
+            "SELECT id FROM bookings WHERE phase IN ('FUTURE', 'CURRENT') AND end_date < ? LIMIT ?)";
+    private static final String MARK_CURRENT = "UPDATE bookings SET phase = 'CURRENT' WHERE id IN (" +
+            "SELECT id FROM bookings WHERE phase = 'FUTURE' AND start_date < ? LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingPhaseProperties properties;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase.sweep-interval:1m}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int past = updateInBatches(MARK_PAST, now);
+        int current = updateInBatches(MARK_CURRENT, now);
+        if (past + current > 0) {
+            log.debug("Фазы бронирований обновлены: {} в PAST, {} в CURRENT", past, current);
+        }
+    }
+
+    private int updateInBatches(String sql, LocalDateTime now) {
+        int total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(sql, now, properties.getBatchSize());
+            total += updated;
+        } while (updated == properties.getBatchSize());
+        return total;
+    }
+}
@@ -1,48 +1,153 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    List<Booking> findByBookerIdOrderByStartDesc(Integer bookerId);
+public interface BookingRepository extends JpaRepository<Booking, Integer>, JpaSpecificationExecutor<Booking> {
+    // Бронирования, закончившиеся после последнего прохода BookingPhaseSweeper, ещё не помечены PAST
+    String PAST_PHASE = "(b.phase = 'PAST' OR (b.phase IN ('FUTURE', 'CURRENT') AND b.end < :now))";
+
+    @Override
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Optional<Booking> findById(Integer id);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByIdInOrderById(Collection<Integer> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'WAITING' AND b.ownerId = :ownerId")
+    List<Booking> findWaitingByIdInAndOwnerIdForUpdate(@Param("ids") Collection<Integer> ids,
+                                                       @Param("ownerId") Integer ownerId);
+
+    // Проверка статуса и владельца входит в сам UPDATE, поэтому из двух параллельных решений применится одно
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = 'WAITING' AND b.ownerId = :ownerId")
+    int updateWaitingStatus(@Param("ids") Collection<Integer> ids,
+                            @Param("status") BookingStatus status,
+                            @Param("ownerId") Integer ownerId);
+
+    @Query("SELECT b.version AS version, i.version AS itemVersion, u.version AS bookerVersion, " +
+            "u.id AS bookerId, b.ownerId AS ownerId " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u WHERE b.id = :id")
+    Optional<BookingVersion> findVersionById(@Param("id") Integer id);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByBookerIdOrderByStartDescIdDesc(Integer bookerId, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND " + PAST_PHASE +
+            " ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPastByBookerId(@Param("bookerId") Integer bookerId, @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByBookerIdAndPhaseAndStartAfterOrderByStartDescIdDesc(
+            Integer bookerId, BookingPhase phase, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByBookerIdAndPhaseInAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+            Integer bookerId, Collection<BookingPhase> phases, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByBookerIdAndStatusOrderByStartDescIdDesc(
+            Integer bookerId, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByOwnerIdOrderByStartDescIdDesc(Integer ownerId, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.ownerId = :ownerId AND " + PAST_PHASE +
+            " ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPastByOwnerId(@Param("ownerId") Integer ownerId, @Param("now") LocalDateTime now,
+                                    Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByOwnerIdAndPhaseAndStartAfterOrderByStartDescIdDesc(
+            Integer ownerId, BookingPhase phase, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByOwnerIdAndPhaseInAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+            Integer ownerId, Collection<BookingPhase> phases, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findByOwnerIdAndStatusOrderByStartDescIdDesc(
+            Integer ownerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Integer bookerId, LocalDateTime end);
+    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByEndDesc(Integer itemId, LocalDateTime date);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Integer bookerId, LocalDateTime start);
+    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Integer itemId, LocalDateTime date);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Integer bookerId, LocalDateTime start, LocalDateTime end);
+    List<Booking> findByItemIdAndEndGreaterThanEqualOrderByStartAsc(Integer itemId, LocalDateTime date,
+                                                                   Pageable pageable);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Integer bookerId, BookingStatus status);
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l WHERE l.item.id = b.item.id AND l.end < :date)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                            @Param("date") LocalDateTime date);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Integer ownerId);
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id AND n.start > :date)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                            @Param("date") LocalDateTime date);
 
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Integer ownerId, LocalDateTime end);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Integer itemId, Collection<BookingStatus> statuses,
+                                                              LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Integer ownerId, LocalDateTime start);
+    boolean existsByItemIdAndBookerIdAndEndBefore(Integer itemId, Integer bookerId, LocalDateTime date);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Integer ownerId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN ('APPROVED', 'WAITING') " +
+            "AND b.end > :date " +
+            "ORDER BY b.start")
+    List<Booking> findActiveByItemIdAndEndAfter(@Param("itemId") Integer itemId,
+                                                @Param("date") LocalDateTime date);
+
+    // Границы полуоткрытые, как и в проверке пересечений при бронировании: [start, end)
+    @Query("SELECT b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status IN ('APPROVED', 'WAITING') " +
+            "AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.item.id, b.start")
+    List<BusyInterval> findActiveIntervalsByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Integer ownerId, BookingStatus status);
+    interface BookingVersion {
+        Integer getVersion();
 
-    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByEndDesc(Integer itemId, LocalDateTime date);
+        Integer getItemVersion();
 
-    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Integer itemId, LocalDateTime date);
+        Integer getBookerVersion();
 
-    boolean existsByItemIdAndBookerIdAndEndBefore(Integer itemId, Integer bookerId, LocalDateTime date);
+        Integer getBookerId();
 
-    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
-            "WHERE b.item.id = :itemId " +
-            "AND b.status IN ('APPROVED', 'WAITING') " +
-            "AND (:start < b.end AND :end > b.start)")
-    boolean existsOverlappingBookings(@Param("itemId") Integer itemId,
-                                      @Param("start") LocalDateTime start,
-                                      @Param("end") LocalDateTime end);
+        Integer getOwnerId();
+    }
+
+    interface BusyInterval {
+        Integer getItemId();
+
+        LocalDateTime getStart();
+
+        LocalDateTime getEnd();
+    }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -10,9 +11,19 @@ public interface BookingService {
 
     BookingFullDto updateBookingStatus(Integer bookingId, BookingStatus status, Integer userId);
 
+    List<BookingFullDto> updateBookingStatuses(List<Integer> bookingIds, BookingStatus status, Integer userId);
+
     BookingFullDto getBookingById(Integer bookingId, Integer userId);
 
-    List<BookingFullDto> getUserBookings(Integer userId, BookingState state);
+    String getBookingETag(Integer bookingId, Integer userId);
+
+    List<BookingFullDto> getUserBookings(Integer userId, BookingState state, Integer from, Integer size);
+
+    List<BookingFullDto> getUserBookingsAfter(Integer userId, BookingState state,
+                                              LocalDateTime cursorStart, Integer cursorId, Integer size);
+
+    List<BookingFullDto> getOwnerBookings(Integer ownerId, BookingState state, Integer from, Integer size);
 
-    List<BookingFullDto> getOwnerBookings(Integer ownerId, BookingState state);
+    List<BookingFullDto> getOwnerBookingsAfter(Integer ownerId, BookingState state,
+                                               LocalDateTime cursorStart, Integer cursorId, Integer size);
 }
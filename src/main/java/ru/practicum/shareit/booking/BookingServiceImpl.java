@@ -1,17 +1,28 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.event.BookingEventPublisher;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.ItemSnapshotCache;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.UserSnapshotCache;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.util.ConstraintViolations;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,23 +30,78 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String NO_OVERLAP_CONSTRAINT = "ex_bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_BULK_UPDATE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final List<BookingPhase> NOT_PAST = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemSnapshotCache itemSnapshotCache;
+    private final UserSnapshotCache userSnapshotCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingLockManager bookingLockManager;
+    private final BookingStatusUpdater bookingStatusUpdater;
+    private final ItemViewCache itemViewCache;
+    private final BookingEventPublisher bookingEventPublisher;
 
     @Override
     public BookingFullDto createBooking(BookingDto bookingDto, Integer userId) {
-        User booker = userRepository.findById(userId)
+        if (bookingDto.getItemId() == null) {
+            throw new ValidationException("Не указана вещь для бронирования");
+        }
+        return bookingLockManager.withItemLock(bookingDto.getItemId(), () -> saveBooking(bookingDto, userId));
+    }
+
+    @Override
+    @Transactional
+    public BookingFullDto updateBookingStatus(Integer bookingId, BookingStatus status, Integer userId) {
+        if (bookingRepository.updateWaitingStatus(List.of(bookingId), status, userId) == 0) {
+            throw rejectedStatusUpdate(bookingId, userId);
+        }
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        onStatusUpdated(booking);
+        return BookingMapper.mapToBookingFullDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingFullDto> updateBookingStatuses(List<Integer> bookingIds, BookingStatus status,
+                                                      Integer userId) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BULK_UPDATE) {
+            throw new ValidationException("Количество бронирований должно быть от 1 до " + MAX_BULK_UPDATE);
+        }
+        userSnapshotCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        List<Integer> updatedIds = bookingStatusUpdater.updateWaiting(bookingIds, status, userId);
+        if (updatedIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Booking> bookings = bookingRepository.findByIdInOrderById(updatedIds);
+        bookings.forEach(this::onStatusUpdated);
+        return bookings.stream()
+                .map(BookingMapper::mapToBookingFullDto)
+                .toList();
+    }
+
+    private BookingFullDto saveBooking(BookingDto bookingDto, Integer userId) {
+        UserSnapshot booker = userSnapshotCache.find(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        ItemSnapshot item = itemSnapshotCache.find(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
         if (!item.getAvailable()) {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
 
-        if (item.getOwner().getId().equals(userId)) {
+        if (item.getOwnerId().equals(userId)) {
             throw new ValidationException("Владелец не может бронировать свою вещь");
         }
 
@@ -48,44 +114,53 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала бронирования не может быть в прошлом");
         }
 
-        boolean hasOverlap = bookingRepository.existsOverlappingBookings(
-                item.getId(), bookingDto.getStart(), bookingDto.getEnd());
-
-        if (hasOverlap) {
+        if (bookingIntervalIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
             throw new ValidationException("Вещь уже забронирована на указанный период");
         }
 
-        Booking booking = BookingMapper.mapToBooking(bookingDto, item, booker);
-        Booking savedBooking = bookingRepository.save(booking);
-        return BookingMapper.mapToBookingFullDto(savedBooking);
+        Booking booking = BookingMapper.mapToBooking(bookingDto, itemRepository.getReferenceById(item.getId()),
+                userRepository.getReferenceById(booker.getId()), item.getOwnerId());
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, NO_OVERLAP_CONSTRAINT, EXCLUSION_VIOLATION)) {
+                throw new ValidationException("Вещь уже забронирована на указанный период");
+            }
+            throw e;
+        }
+        bookingEventPublisher.publish(savedBooking, BookingEventType.BOOKING_CREATED);
+        bookingIntervalIndex.add(item.getId(), savedBooking.getStart(), savedBooking.getEnd());
+        itemViewCache.onBookingCreated(savedBooking);
+        return BookingMapper.mapToBookingFullDto(savedBooking, item, booker);
     }
 
-    @Override
-    public BookingFullDto updateBookingStatus(Integer bookingId, BookingStatus status, Integer userId) {
+    private RuntimeException rejectedStatusUpdate(Integer bookingId, Integer userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ForbiddenException("Только владелец может подтверждать бронирование");
+        if (!booking.getOwnerId().equals(userId)) {
+            return new ForbiddenException("Только владелец может подтверждать бронирование");
         }
+        return new ForbiddenException("Бронирование уже обработано");
+    }
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new ForbiddenException("Бронирование уже обработано");
+    private void onStatusUpdated(Booking booking) {
+        bookingEventPublisher.publish(booking, booking.getStatus() == BookingStatus.APPROVED
+                ? BookingEventType.BOOKING_APPROVED
+                : BookingEventType.BOOKING_REJECTED);
+        if (booking.getStatus() == BookingStatus.REJECTED) {
+            bookingIntervalIndex.release(booking.getItem().getId());
         }
-
-        booking.setStatus(status);
-
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.mapToBookingFullDto(updatedBooking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingFullDto getBookingById(Integer bookingId, Integer userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
         if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+                !booking.getOwnerId().equals(userId)) {
             throw new ForbiddenException("Только владелец имеет доступ к вещи");
         }
 
@@ -93,20 +168,41 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingFullDto> getUserBookings(Integer userId, BookingState state) {
-        userRepository.findById(userId)
+    @Transactional(readOnly = true)
+    public String getBookingETag(Integer bookingId, Integer userId) {
+        BookingRepository.BookingVersion version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+
+        if (!version.getBookerId().equals(userId) && !version.getOwnerId().equals(userId)) {
+            throw new ForbiddenException("Только владелец имеет доступ к вещи");
+        }
+
+        // Ответ содержит вещь и арендатора, поэтому их версии входят в тег
+        return bookingId + "-" + version.getVersion() + "-" + version.getItemVersion() + "-" +
+                version.getBookerVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingFullDto> getUserBookings(Integer userId, BookingState state, Integer from, Integer size) {
+        userSnapshotCache.find(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Pageable page = toPage(from, size);
 
         List<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
 
         bookings = switch (state) {
-            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now);
-            case PAST -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByBookerIdOrderByStartDesc(userId);
+            case CURRENT -> bookingRepository.findByBookerIdAndPhaseInAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                    userId, NOT_PAST, now, now, page);
+            case PAST -> bookingRepository.findPastByBookerId(userId, now, page);
+            case FUTURE -> bookingRepository.findByBookerIdAndPhaseAndStartAfterOrderByStartDescIdDesc(
+                    userId, BookingPhase.FUTURE, now, page);
+            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                    userId, BookingStatus.WAITING, page);
+            case REJECTED -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                    userId, BookingStatus.REJECTED, page);
+            default -> bookingRepository.findByBookerIdOrderByStartDescIdDesc(userId, page);
         };
 
         return bookings.stream()
@@ -115,27 +211,96 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingFullDto> getOwnerBookings(Integer ownerId, BookingState state) {
-        userRepository.findById(ownerId)
+    @Transactional(readOnly = true)
+    public List<BookingFullDto> getUserBookingsAfter(Integer userId, BookingState state,
+                                                     LocalDateTime cursorStart, Integer cursorId, Integer size) {
+        userSnapshotCache.find(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
+        return findBookingsAfter(BookingSpecifications.byBooker(userId), state, cursorStart, cursorId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingFullDto> getOwnerBookings(Integer ownerId, BookingState state, Integer from, Integer size) {
+        userSnapshotCache.find(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Pageable page = toPage(from, size);
+
         List<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
 
         bookings = switch (state) {
-            case CURRENT -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    ownerId, now, now);
-            case PAST -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
-            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
-            case WAITING ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId);
+            case CURRENT -> bookingRepository.findByOwnerIdAndPhaseInAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                    ownerId, NOT_PAST, now, now, page);
+            case PAST -> bookingRepository.findPastByOwnerId(ownerId, now, page);
+            case FUTURE -> bookingRepository.findByOwnerIdAndPhaseAndStartAfterOrderByStartDescIdDesc(
+                    ownerId, BookingPhase.FUTURE, now, page);
+            case WAITING -> bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(
+                    ownerId, BookingStatus.WAITING, page);
+            case REJECTED -> bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(
+                    ownerId, BookingStatus.REJECTED, page);
+            default -> bookingRepository.findByOwnerIdOrderByStartDescIdDesc(ownerId, page);
         };
 
         return bookings.stream()
                 .map(BookingMapper::mapToBookingFullDto)
                 .toList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingFullDto> getOwnerBookingsAfter(Integer ownerId, BookingState state,
+                                                      LocalDateTime cursorStart, Integer cursorId, Integer size) {
+        userSnapshotCache.find(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        return findBookingsAfter(BookingSpecifications.byOwner(ownerId), state, cursorStart, cursorId, size);
+    }
+
+    private List<BookingFullDto> findBookingsAfter(Specification<Booking> scope, BookingState state,
+                                                   LocalDateTime cursorStart, Integer cursorId, Integer size) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать дату начала и id бронирования");
+        }
+        int limit = checkPageSize(size);
+
+        Specification<Booking> spec = scope.and(BookingSpecifications.inState(state, LocalDateTime.now()));
+        if (cursorStart != null) {
+            spec = spec.and(BookingSpecifications.before(cursorStart, cursorId));
+        }
+
+        List<Booking> bookings = bookingRepository.findBy(spec, query -> query
+                .sortBy(BookingSpecifications.NEWEST_FIRST)
+                .project("item", "booker")
+                .limit(limit)
+                .all());
+
+        return bookings.stream()
+                .map(BookingMapper::mapToBookingFullDto)
+                .toList();
+    }
+
+    // Без from и size список отдаётся целиком, как до появления страниц; если задан хотя бы один,
+    // второй берётся по умолчанию
+    private Pageable toPage(Integer from, Integer size) {
+        if (from == null && size == null) {
+            return Pageable.unpaged();
+        }
+        int offset = from == null ? 0 : from;
+        if (offset < 0) {
+            throw new ValidationException("Некорректные параметры страницы");
+        }
+        return new OffsetPageRequest(offset, checkPageSize(size));
+    }
+
+    private int checkPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
 }
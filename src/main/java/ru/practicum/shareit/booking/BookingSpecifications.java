@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+
+    public static Specification<Booking> byBooker(Integer bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byOwner(Integer ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("ownerId"), ownerId);
+    }
+
+    // Фаза сужает выборку до индекса, а сравнение со временем исправляет отставание фонового прохода
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case CURRENT -> cb.and(root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                    cb.lessThan(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            case PAST -> cb.or(cb.equal(root.get("phase"), BookingPhase.PAST),
+                    cb.and(root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                            cb.lessThan(root.get("end"), now)));
+            case FUTURE -> cb.and(cb.equal(root.get("phase"), BookingPhase.FUTURE),
+                    cb.greaterThan(root.get("start"), now));
+            case WAITING -> cb.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), BookingStatus.REJECTED);
+            default -> cb.conjunction();
+        };
+    }
+
+    public static Specification<Booking> before(LocalDateTime cursorStart, Integer cursorId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursorStart),
+                cb.and(cb.equal(root.get("start"), cursorStart), cb.lessThan(root.get("id"), cursorId)));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Решение владельца по нескольким бронированиям одним запросом: UPDATE с проверкой статуса
+ * и владельца сразу возвращает id изменённых строк, поэтому из двух параллельных решений
+ * применится одно без предварительной блокировки. PostgreSQL — UPDATE ... RETURNING,
+ * H2 — FINAL TABLE; для остальных СУБД строки блокируются SELECT ... FOR UPDATE перед UPDATE.
+ */
+@Component
+public class BookingStatusUpdater {
+    private static final String UPDATE_WAITING = "UPDATE bookings SET status = :status, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'WAITING' AND owner_id = :ownerId";
+    private static final String POSTGRES_UPDATE_WAITING = UPDATE_WAITING + " RETURNING id";
+    private static final String H2_UPDATE_WAITING = "SELECT id FROM FINAL TABLE (" + UPDATE_WAITING + ")";
+
+    private final EntityManager entityManager;
+    private final BookingRepository bookingRepository;
+    private final String updateWaitingReturningIds;
+
+    public BookingStatusUpdater(EntityManager entityManager, BookingRepository bookingRepository) {
+        this.entityManager = entityManager;
+        this.bookingRepository = bookingRepository;
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        if (dialect instanceof PostgreSQLDialect) {
+            updateWaitingReturningIds = POSTGRES_UPDATE_WAITING;
+        } else if (dialect instanceof H2Dialect) {
+            updateWaitingReturningIds = H2_UPDATE_WAITING;
+        } else {
+            updateWaitingReturningIds = null;
+        }
+    }
+
+    // Вызывается в транзакции; контекст персистентности очищается, как после updateWaitingStatus
+    public List<Integer> updateWaiting(Collection<Integer> ids, BookingStatus status, Integer ownerId) {
+        if (updateWaitingReturningIds == null) {
+            List<Integer> waitingIds = bookingRepository.findWaitingByIdInAndOwnerIdForUpdate(ids, ownerId).stream()
+                    .map(Booking::getId)
+                    .toList();
+            if (!waitingIds.isEmpty()) {
+                bookingRepository.updateWaitingStatus(waitingIds, status, ownerId);
+            }
+            return waitingIds;
+        }
+
+        entityManager.flush();
+        List<?> rows = entityManager.createNativeQuery(updateWaitingReturningIds)
+                .setParameter("status", status.name())
+                .setParameter("ids", ids)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        entityManager.clear();
+        return rows.stream()
+                .map(id -> ((Number) id).intValue())
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Миграция V6: заполняет bookings.owner_id владельцем вещи. Выполняется вне общей транзакции
+ * пачками, чтобы на больших таблицах не держать долгую блокировку. Версию и описание
+ * BaseJavaMigration берёт из имени класса, поэтому оно следует соглашению Flyway.
+ */
+@Component
+public class V6__Backfill_booking_owner extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 10_000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (PreparedStatement update = context.getConnection().prepareStatement(
+                "UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id) " +
+                        "WHERE id IN (SELECT b.id FROM bookings b WHERE b.owner_id IS NULL ORDER BY b.id LIMIT ?)")) {
+            update.setInt(1, BATCH_SIZE);
+            int updated;
+            do {
+                updated = update.executeUpdate();
+            } while (updated > 0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "booking_events")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingEventType type;
+    @Column(name = "booking_id", nullable = false)
+    private Integer bookingId;
+    @Column(name = "item_id", nullable = false)
+    private Integer itemId;
+    @Column(name = "booker_id", nullable = false)
+    private Integer bookerId;
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+    @Column(nullable = false)
+    private LocalDateTime created;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingEventStatus status = BookingEventStatus.PENDING;
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    // Имена получателей через запятую, уже принявших событие
+    @Column(name = "delivered_to")
+    private String deliveredTo;
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Фоновый разбор таблицы booking_events. События забираются пачками с блокировкой строк,
+ * передаются всем получателям и помечаются доставленными в той же транзакции. Если получатель
+ * упал, событие остаётся в очереди: получатели, уже принявшие его, запоминаются в delivered_to,
+ * а повтор откладывается на паузу, которая удваивается с каждой попыткой. После maxAttempts
+ * событие переходит в FAILED. Доставленные события удаляются после срока хранения.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.events.dispatch-enabled", havingValue = "true", matchIfMissing = true)
+public class BookingEventDispatcher {
+    private static final String PURGE_DISPATCHED = "DELETE FROM booking_events WHERE id IN (" +
+            "SELECT id FROM booking_events WHERE status = 'DISPATCHED' AND dispatched_at < ? LIMIT ?)";
+
+    private final BookingEventRepository bookingEventRepository;
+    private final List<BookingEventListener> listeners;
+    private final BookingEventProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.events.poll-interval:1s}")
+    public void dispatchPending() {
+        int dispatched;
+        do {
+            dispatched = transactionTemplate.execute(status -> dispatchBatch());
+        } while (dispatched == properties.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.events.purge-interval:1h}")
+    public void purgeDispatched() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_DISPATCHED, before, properties.getPurgeBatchSize());
+            total += deleted;
+        } while (deleted == properties.getPurgeBatchSize());
+        if (total > 0) {
+            log.debug("Удалено доставленных событий: {}", total);
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = bookingEventRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByAttemptsAscIdAsc(
+                        BookingEventStatus.PENDING, now, PageRequest.of(0, properties.getBatchSize()));
+        int dispatched = 0;
+        for (BookingEvent event : events) {
+            Set<String> delivered = deliveredTo(event);
+            try {
+                for (BookingEventListener listener : listeners) {
+                    if (!delivered.contains(listener.name())) {
+                        listener.onBookingEvent(event);
+                        delivered.add(listener.name());
+                    }
+                }
+                event.setStatus(BookingEventStatus.DISPATCHED);
+                event.setDispatchedAt(LocalDateTime.now());
+                dispatched++;
+            } catch (RuntimeException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= properties.getMaxAttempts()) {
+                    event.setStatus(BookingEventStatus.FAILED);
+                    log.error("Событие {} не доставлено за {} попыток и переведено в FAILED",
+                            event.getId(), event.getAttempts(), e);
+                } else {
+                    event.setNextAttemptAt(now.plus(retryDelay(event.getAttempts())));
+                    log.warn("Не удалось доставить событие {} (попытка {})", event.getId(), event.getAttempts(), e);
+                }
+            }
+            event.setDeliveredTo(delivered.isEmpty() ? null : String.join(",", delivered));
+        }
+        return dispatched;
+    }
+
+    private Set<String> deliveredTo(BookingEvent event) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredTo() != null) {
+            delivered.addAll(Arrays.asList(event.getDeliveredTo().split(",")));
+        }
+        return delivered;
+    }
+
+    // retryDelay * 2^(attempts - 1), не больше maxRetryDelay; сдвиг ограничен, чтобы не переполнить long
+    private Duration retryDelay(int attempts) {
+        Duration delay = properties.getRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(properties.getMaxRetryDelay()) > 0 ? properties.getMaxRetryDelay() : delay;
+    }
+}
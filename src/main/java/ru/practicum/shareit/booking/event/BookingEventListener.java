@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Получатель событий бронирований. Доставка «хотя бы один раз»: при сбое повтор уходит только тем
+ * получателям, которые событие ещё не приняли, но если узел упадёт до фиксации транзакции, событие
+ * получат все повторно, поэтому обработка должна быть идемпотентной.
+ */
+public interface BookingEventListener {
+    void onBookingEvent(BookingEvent event);
+
+    // Под этим именем получатель записывается в delivered_to, поэтому оно не должно меняться между версиями
+    default String name() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+}
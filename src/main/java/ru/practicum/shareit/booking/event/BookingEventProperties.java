@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking.events")
+public class BookingEventProperties {
+    private boolean dispatchEnabled = true;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private int batchSize = 100;
+    // После стольких неудачных попыток событие переходит в FAILED
+    private int maxAttempts = 10;
+    // Пауза перед первым повтором, дальше она удваивается, но не больше maxRetryDelay
+    private Duration retryDelay = Duration.ofSeconds(1);
+    private Duration maxRetryDelay = Duration.ofMinutes(10);
+    // Сколько хранятся доставленные события
+    private Duration retention = Duration.ofDays(7);
+    private Duration purgeInterval = Duration.ofHours(1);
+    private int purgeBatchSize = 1000;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Записывает событие в таблицу booking_events в транзакции изменения бронирования:
+ * событие появляется тогда и только тогда, когда зафиксировано само изменение.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventPublisher {
+    private final BookingEventRepository bookingEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Booking booking, BookingEventType type) {
+        BookingEvent event = new BookingEvent();
+        event.setType(type);
+        event.setBookingId(booking.getId());
+        event.setItemId(booking.getItem().getId());
+        event.setBookerId(booking.getBooker().getId());
+        event.setOwnerId(booking.getOwnerId());
+        event.setCreated(LocalDateTime.now());
+        event.setNextAttemptAt(event.getCreated());
+        bookingEventRepository.save(event);
+    }
+}
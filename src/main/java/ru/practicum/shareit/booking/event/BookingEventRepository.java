@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    // -2 = SKIP LOCKED: узлы разбирают разные события, не дожидаясь друг друга; события, чей повтор
+    // отложен, не выбираются до nextAttemptAt, а ранее упавшие идут после свежих и не задерживают очередь
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<BookingEvent> findByStatusAndNextAttemptAtLessThanEqualOrderByAttemptsAscIdAsc(
+            BookingEventStatus status, LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.event;
+
+public enum BookingEventStatus {
+    // Ждёт доставки
+    PENDING,
+    // Доставлено всем получателям, удаляется по истечении срока хранения
+    DISPATCHED,
+    // Попытки исчерпаны, событие больше не доставляется и требует разбора
+    FAILED
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingBookingEventListener implements BookingEventListener {
+    @Override
+    public void onBookingEvent(BookingEvent event) {
+        log.info("Событие {} по бронированию {} вещи {}", event.getType(), event.getBookingId(), event.getItemId());
+    }
+}
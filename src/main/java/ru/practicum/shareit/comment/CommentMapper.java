@@ -11,10 +11,21 @@ public class CommentMapper {
                 comment.getId(),
                 comment.getText(),
                 comment.getAuthor().getName(),
-                comment.getCreated()
+                comment.getCreated(),
+                comment.getAuthor().getId()
         );
     }
 
+    public static CommentDto mapToCommentDto(Comment comment, String authorName) {
+        return new CommentDto(comment.getId(), comment.getText(), authorName, comment.getCreated(),
+                comment.getAuthor().getId());
+    }
+
+    public static CommentDto mapToCommentDto(CommentRepository.LatestComment comment) {
+        return new CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(), comment.getCreated(),
+                comment.getAuthorId());
+    }
+
     public static Comment mapToComment(CommentDto commentDto, Item item, User author) {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
@@ -1,10 +1,45 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findByItemId(Integer itemId);
+    @Query("SELECT new ru.practicum.shareit.comment.dto.CommentDto(c.id, c.text, a.name, c.created, a.id) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findDtosByItemId(@Param("itemId") Integer itemId, Pageable pageable);
+
+    // Не больше :limit новых комментариев на каждую вещь одним запросом
+    @Query(value = "SELECT c.item_id AS itemId, c.id AS id, c.text AS text, u.name AS authorName, " +
+            "c.created AS created, c.author_id AS authorId FROM (" +
+            "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c WHERE c.item_id IN (:itemIds)) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<LatestComment> findLatestByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                            @Param("limit") int limit);
+
+    interface LatestComment {
+        Integer getItemId();
+
+        Integer getId();
+
+        String getText();
+
+        String getAuthorName();
+
+        LocalDateTime getCreated();
+
+        Integer getAuthorId();
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.comment.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,7 @@ public class CommentDto {
     private String text;
     private String authorName;
     private LocalDateTime created;
+    // Нужен кэшу карточек, чтобы сбросить встроенные комментарии при смене имени автора
+    @JsonIgnore
+    private Integer authorId;
 }
@@ -24,4 +24,6 @@ public class Comment {
     private User author;
     @Column(nullable = false)
     private LocalDateTime created;
+    @Version
+    private Integer version;
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Ограничитель ставится первым, прямо поверх пула, остальные обёртки DataSource идут снаружи.
+ */
+@Component
+public class ConnectionLimitPostProcessor implements BeanPostProcessor, Ordered {
+    public static final int ORDER = 0;
+
+    private final ObjectProvider<JdbcLimitProperties> properties;
+
+    public ConnectionLimitPostProcessor(ObjectProvider<JdbcLimitProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+            return bean;
+        }
+        JdbcLimitProperties limit = properties.getObject();
+        if (!limit.isEnabled()) {
+            return bean;
+        }
+        return new ConnectionLimitingDataSource(dataSource, limit.getMaxConcurrent(), limit.getAcquireTimeout());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
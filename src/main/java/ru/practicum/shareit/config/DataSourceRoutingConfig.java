@@ -0,0 +1,67 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Заменяет автоконфигурированный пул маршрутизирующим источником: основная БД из spring.datasource.*,
+ * реплики из shareit.datasource.routing.replicas. Пулы строятся здесь, а не отдельными бинами, чтобы
+ * обёртки DataSource (лимит соединений, журнал медленных запросов) применялись к источнику один раз.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaSet replicaSet(DataSourceProperties primaryProperties,
+                                 DataSourceRoutingProperties properties,
+                                 Environment environment) {
+        List<DataSourceRoutingProperties.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = bindHikari(primaryProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build(), environment);
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            dataSources.put("replica-" + i, dataSource);
+        }
+        return new ReplicaSet(dataSources, properties.getLagQuery(), properties.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryProperties,
+                                 ReplicaSet replicaSet,
+                                 RecentWriters recentWriters,
+                                 Environment environment) {
+        HikariDataSource primary = bindHikari(primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build(), environment);
+        primary.setPoolName("primary");
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaSet, recentWriters));
+    }
+
+    private HikariDataSource bindHikari(HikariDataSource dataSource, Environment environment) {
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
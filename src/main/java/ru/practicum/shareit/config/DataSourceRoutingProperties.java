@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // Сколько после своего изменения пользователь читает с основной БД, пока реплики догоняют её
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private long maxTrackedWriters = 100_000;
+    // Запрос, возвращающий отставание реплики в секундах; пустой — реплики считаются синхронными
+    private String lagQuery = "";
+    private Duration maxLag = Duration.ofSeconds(2);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
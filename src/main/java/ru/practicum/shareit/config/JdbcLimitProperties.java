@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.jdbc.limit")
+public class JdbcLimitProperties {
+    private boolean enabled = false;
+    private int maxConcurrent = 10;
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Aspect
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaAspect {
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..)) && @annotation(transactional)")
+    public Object markReadOnlyCall(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = ReadReplicaContext.enterReadOnlyCall();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadReplicaContext.exitReadOnlyCall(outermost);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Состояние текущего потока, по которому ReadWriteRoutingDataSource выбирает базу: выполняется ли
+ * сервисный метод с @Transactional(readOnly = true) и от имени какого пользователя идёт запрос.
+ * Промахи кэшей загружаются через onPrimary: если соединение вызова ещё не взято, оно берётся с
+ * основной БД, и загруженное можно кэшировать. Если вызов уже читает с реплики, это запоминается
+ * до его конца: прочитанное с отстающей реплики не должно попадать в кэши, иначе устаревшие данные
+ * переживут саму задержку.
+ */
+public class ReadReplicaContext {
+    private static final ThreadLocal<Boolean> READ_ONLY_CALL = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> USER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_LOAD = new ThreadLocal<>();
+
+    public static boolean isReadOnlyCall() {
+        return READ_ONLY_CALL.get() != null;
+    }
+
+    public static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    public static <T> T onPrimary(Supplier<T> load) {
+        if (PRIMARY_LOAD.get() != null) {
+            return load.get();
+        }
+        PRIMARY_LOAD.set(Boolean.TRUE);
+        try {
+            return load.get();
+        } finally {
+            PRIMARY_LOAD.remove();
+        }
+    }
+
+    static boolean isPrimaryLoad() {
+        return PRIMARY_LOAD.get() != null;
+    }
+
+    public static Integer currentUser() {
+        return USER.get();
+    }
+
+    static boolean enterReadOnlyCall() {
+        if (READ_ONLY_CALL.get() != null) {
+            return false;
+        }
+        READ_ONLY_CALL.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void exitReadOnlyCall(boolean outermost) {
+        if (outermost) {
+            READ_ONLY_CALL.remove();
+            REPLICA_READ.remove();
+        }
+    }
+
+    static void markReplicaRead() {
+        REPLICA_READ.set(Boolean.TRUE);
+    }
+
+    static void setUser(Integer userId) {
+        USER.set(userId);
+    }
+
+    static void clearUser() {
+        USER.remove();
+    }
+}
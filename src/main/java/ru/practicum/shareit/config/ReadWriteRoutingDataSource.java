@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Направляет транзакции сервисных методов с @Transactional(readOnly = true) на реплики, остальные —
+ * на основную БД. Признак readOnly выставляется уже после получения соединения, поэтому источник
+ * оборачивается в LazyConnectionDataSourceProxy: физическое соединение берётся при первом запросе.
+ * Транзакции репозиториев Spring Data тоже read-only, но вне сервисного метода они остаются на основной
+ * БД — на них держатся проверки в путях записи. Загрузки промахов кэша (ReadReplicaContext.onPrimary)
+ * тоже идут на основную БД.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final ReplicaSet replicas;
+    private final RecentWriters recentWriters;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicas, RecentWriters recentWriters) {
+        this.replicas = replicas;
+        this.recentWriters = recentWriters;
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!ReadReplicaContext.isReadOnlyCall() || ReadReplicaContext.isPrimaryLoad()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Integer userId = ReadReplicaContext.currentUser();
+        if (userId != null && recentWriters.wroteRecently(userId)) {
+            return PRIMARY;
+        }
+        String replica = replicas.pick();
+        if (replica == null) {
+            return PRIMARY;
+        }
+        ReadReplicaContext.markReplicaRead();
+        return replica;
+    }
+}
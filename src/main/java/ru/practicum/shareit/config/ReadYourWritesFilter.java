@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.util.Constants;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Запоминает пользователя из X-Sharer-User-Id для маршрутизации чтений, а изменяющие запросы
+ * отмечает в RecentWriters — до и после выполнения, чтобы окно отсчитывалось от фиксации изменений.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final RecentWriters recentWriters;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Integer userId = parseUserId(request.getHeader(Constants.HEAD));
+        boolean write = userId != null && !READ_METHODS.contains(request.getMethod());
+        ReadReplicaContext.setUser(userId);
+        if (write) {
+            recentWriters.recordWrite(userId);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (write) {
+                recentWriters.recordWrite(userId);
+            }
+            ReadReplicaContext.clearUser();
+        }
+    }
+
+    private Integer parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пользователи, менявшие данные в последние readYourWritesWindow. Их чтения идут на основную БД,
+ * чтобы отставание реплик не прятало от пользователя его же изменения. Учёт ведётся в памяти
+ * экземпляра приложения.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class RecentWriters {
+    private final Cache<Integer, Boolean> writers;
+
+    public RecentWriters(DataSourceRoutingProperties properties) {
+        this.writers = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .maximumSize(properties.getMaxTrackedWriters())
+                .build();
+    }
+
+    public void recordWrite(Integer userId) {
+        writers.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(Integer userId) {
+        return writers.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реплики для чтения. Чтения распределяются по кругу между репликами, отставание которых не
+ * превышает maxLag; если таких нет, ReadWriteRoutingDataSource читает с основной БД.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+    private final Map<String, DataSource> replicas;
+    private final List<String> keys;
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaSet(Map<String, DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.replicas = Map.copyOf(replicas);
+        this.keys = List.copyOf(replicas.keySet());
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        healthy.addAll(keys);
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return replicas;
+    }
+
+    public String pick() {
+        for (int attempt = 0; attempt < keys.size(); attempt++) {
+            String key = keys.get(Math.floorMod(next.getAndIncrement(), keys.size()));
+            if (healthy.contains(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.lag-check-interval:5s}")
+    public void checkLag() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return;
+        }
+        replicas.forEach((key, dataSource) -> {
+            boolean caughtUp;
+            try {
+                Double lagSeconds = new JdbcTemplate(dataSource).queryForObject(lagQuery, Double.class);
+                caughtUp = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            } catch (DataAccessException e) {
+                log.warn("Не удалось проверить отставание реплики {}: {}", key, e.getMessage());
+                caughtUp = false;
+            }
+            if (caughtUp ? healthy.add(key) : healthy.remove(key)) {
+                log.info("Реплика {} {} в ротацию чтений", key, caughtUp ? "возвращена" : "выведена из");
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.batch.BatchRowResult;
+import ru.practicum.shareit.batch.JsonBatchProcessor;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSnapshotCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ItemBatchImporter {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_ITEM =
+            "INSERT INTO items (name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemRequestRepository itemRequestRepository;
+
+    public void importItems(InputStream input, OutputStream output, Integer ownerId) throws IOException {
+        userSnapshotCache.find(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User owner = userRepository.getReferenceById(ownerId);
+        JsonBatchProcessor.process(objectMapper, input, output, ItemDto.class, BATCH_SIZE,
+                (firstIndex, rows) -> importBatch(firstIndex, rows, owner));
+    }
+
+    private List<BatchRowResult> importBatch(int firstIndex, List<ItemDto> rows, User owner) {
+        BatchRowResult[] results = new BatchRowResult[rows.size()];
+        Set<Integer> requestIds = findExistingRequestIds(rows);
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String error = JsonBatchProcessor.validationError(validator, rows.get(i));
+            Integer requestId = rows.get(i).getRequestId();
+            if (error == null && requestId != null && !requestIds.contains(requestId)) {
+                error = "Запрос не найден";
+            }
+            if (error == null) {
+                accepted.add(i);
+            } else {
+                results[i] = BatchRowResult.failed(firstIndex + i, error);
+            }
+        }
+
+        List<ItemDto> items = accepted.stream().map(rows::get).toList();
+        List<Integer> ids = transactionTemplate.execute(status -> {
+            List<Integer> keys = insertItems(items, owner.getId());
+            TransactionHooks.afterCommit(() -> indexItems(items, keys, owner));
+            return keys;
+        });
+        for (int i = 0; i < accepted.size(); i++) {
+            results[accepted.get(i)] = BatchRowResult.created(firstIndex + accepted.get(i), ids.get(i));
+        }
+        return List.of(results);
+    }
+
+    private Set<Integer> findExistingRequestIds(List<ItemDto> rows) {
+        Set<Integer> requestIds = rows.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Set.of();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private List<Integer> insertItems(List<ItemDto> items, Integer ownerId) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ITEM, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        ItemDto item = items.get(i);
+                        statement.setString(1, item.getName());
+                        statement.setString(2, item.getDescription());
+                        statement.setBoolean(3, item.getAvailable());
+                        statement.setInt(4, ownerId);
+                        if (item.getRequestId() == null) {
+                            statement.setNull(5, Types.BIGINT);
+                        } else {
+                            statement.setInt(5, item.getRequestId());
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                }, keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).intValue())
+                .toList();
+    }
+
+    private void indexItems(List<ItemDto> items, List<Integer> ids, User owner) {
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto dto = items.get(i);
+            itemSearchEngine.index(new Item(ids.get(i), dto.getName(), dto.getDescription(), dto.getAvailable(),
+                    owner, null, 0));
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.util.Constants;
+import ru.practicum.shareit.util.ETags;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,7 +30,11 @@ import java.util.List;
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    // Карточка зависит от пользователя и времени, поэтому кэшируется только клиентом и с перепроверкой
+    private static final CacheControl ITEM_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final ItemService itemService;
+    private final ItemBatchImporter itemBatchImporter;
 
     @PostMapping
     public ItemDto createItem(@Valid @RequestBody ItemDto itemDto, @RequestHeader(Constants.HEAD) Integer ownerId) {
@@ -26,6 +42,13 @@ public class ItemController {
         return ItemMapper.mapToItemDto(item);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void createItems(InputStream body, HttpServletResponse response,
+                            @RequestHeader(Constants.HEAD) Integer ownerId) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        itemBatchImporter.importItems(body, response.getOutputStream(), ownerId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto, @PathVariable Integer itemId,
                               @RequestHeader(Constants.HEAD) Integer ownerId) {
@@ -33,25 +56,72 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@PathVariable Integer itemId,
-                               @RequestHeader(Constants.HEAD) Integer userId) {
-        return itemService.getItemById(itemId, userId);
+    public ResponseEntity<ItemDto> getItemById(@PathVariable Integer itemId,
+                                               @RequestHeader(Constants.HEAD) Integer userId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        // Тег проверки не новее тела, которое будет прочитано после него; тег ответа берётся из самого тела
+        String etag = itemService.findItemETag(itemId, userId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(ITEM_CACHE_CONTROL)
+                    .build();
+        }
+        ItemDto item = itemService.getItemById(itemId, userId);
+        return ResponseEntity.ok()
+                .eTag(itemService.getItemETag(item))
+                .cacheControl(ITEM_CACHE_CONTROL)
+                .body(item);
     }
 
     @GetMapping
     public List<ItemDto> getOwnersItem(@RequestHeader(Constants.HEAD) Integer ownerId) {
-        return itemService.getOwnersItem(ownerId).stream()
-                .map(ItemMapper::mapToItemDto)
-                .toList();
+        return itemService.getOwnersItem(ownerId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Integer itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getOwnerAvailability(@RequestParam
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime from,
+                                                          @RequestParam
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime to,
+                                                          @RequestHeader(Constants.HEAD) Integer ownerId) {
+        return itemService.getOwnerAvailability(ownerId, from, to);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchingItems(@RequestParam String text) {
-        return itemService.searchingItems(text).stream()
+    public List<ItemDto> searchingItems(@RequestParam String text,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                        LocalDateTime start,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                        LocalDateTime end,
+                                        @RequestParam(defaultValue = "0") Integer from,
+                                        @RequestParam(defaultValue = "20") Integer size) {
+        return itemService.searchingItems(text, start, end, from, size).stream()
                 .map(ItemMapper::mapToItemDto)
                 .toList();
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable Integer itemId,
+                                        @RequestParam(defaultValue = "0") Integer from,
+                                        @RequestParam(defaultValue = "20") Integer size) {
+        return itemService.getComments(itemId, from, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Integer itemId,
                                  @Valid @RequestBody CommentDto commentDto,
@@ -1,18 +1,83 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Integer id);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSnapshot(i.id, i.name, i.description, i.available, " +
+            "i.owner.id, i.request.id, i.version) FROM Item i WHERE i.id = :id")
+    Optional<ItemSnapshot> findSnapshotById(@Param("id") Integer id);
+
     List<Item> findByOwnerIdOrderById(Integer ownerId);
 
-    @Query("SELECT i FROM Item AS i " +
-            "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
-            "AND i.available = true")
-    List<Item> searchAvailableItems(@Param("text") String text);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSnapshot(i.id, i.name, i.description, i.available, " +
+            "i.owner.id, i.request.id, i.version) FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<ItemSnapshot> findSnapshotsByOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "FROM Item i WHERE i.request.id IN :requestIds ORDER BY i.id")
+    List<ItemAnswerDto> findAnswersByRequestIds(@Param("requestIds") Collection<Integer> requestIds);
+
+    @Query("SELECT i.version AS version, i.owner.id AS ownerId FROM Item i WHERE i.id = :id")
+    Optional<ItemVersion> findVersionById(@Param("id") Integer id);
+
+    // Карточка вещи включает комментарии, поэтому новый комментарий тоже меняет её версию
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id = :id")
+    void incrementVersion(@Param("id") Integer id);
+
+    @Query(value = "SELECT * FROM items " +
+            "WHERE is_available = true " +
+            "AND to_tsvector('simple', name || ' ' || description) @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(to_tsvector('simple', name || ' ' || description), " +
+            "to_tsquery('simple', :query)) DESC, id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> fullTextSearchAvailableItems(@Param("query") String query,
+                                            @Param("from") int from,
+                                            @Param("size") int size);
+
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids AND i.available = true AND NOT EXISTS (" +
+            "SELECT b.id FROM Booking b WHERE b.item = i AND b.status IN ('APPROVED', 'WAITING') " +
+            "AND b.start < :end AND b.end > :start)")
+    List<Item> findFreeByIdIn(@Param("ids") Collection<Integer> ids,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT * FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', :query) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status IN ('APPROVED', 'WAITING') AND b.start_date < :end AND b.end_date > :start) " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "to_tsquery('simple', :query)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> fullTextSearchFreeItems(@Param("query") String query,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end,
+                                       @Param("from") int from,
+                                       @Param("size") int size);
+
+    interface ItemVersion {
+        Integer getVersion();
+
+        Integer getOwnerId();
+    }
 }
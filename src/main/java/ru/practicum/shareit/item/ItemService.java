@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -13,9 +15,19 @@ public interface ItemService {
 
     ItemDto getItemById(Integer itemId, Integer userId);
 
-    List<Item> getOwnersItem(Integer ownerId);
+    String findItemETag(Integer itemId, Integer userId);
 
-    List<Item> searchingItems(String text);
+    String getItemETag(ItemDto item);
+
+    List<ItemDto> getOwnersItem(Integer ownerId);
+
+    ItemAvailabilityDto getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getOwnerAvailability(Integer ownerId, LocalDateTime from, LocalDateTime to);
+
+    List<Item> searchingItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    List<CommentDto> getComments(Integer itemId, Integer from, Integer size);
 
     CommentDto addComment(Integer itemId, CommentDto commentDto, Integer authorId);
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.CommentMapper;
@@ -11,33 +14,60 @@ import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.item.view.ItemViewProperties;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.UserSnapshotCache;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.util.ETags;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemSnapshotCache itemSnapshotCache;
+    private final UserSnapshotCache userSnapshotCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemViewCache itemViewCache;
+    private final ItemViewProperties itemViewProperties;
+    private final ItemRequestRepository itemRequestRepository;
 
     @Override
     public Item createItem(ItemDto itemDto, Integer ownerId) {
-        User owner = userRepository.findById(ownerId)
+        userSnapshotCache.find(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
         Item item = ItemMapper.mapToItem(itemDto, ownerId);
-        item.setOwner(owner);
-        return itemRepository.save(item);
+        item.setOwner(userRepository.getReferenceById(ownerId));
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("Запрос не найден")));
+        }
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        itemSnapshotCache.onItemSaved(savedItem);
+        return savedItem;
     }
 
     @Override
@@ -56,43 +86,146 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             newItem.setAvailable(itemDto.getAvailable());
         }
-        return itemRepository.save(newItem);
+        Item savedItem = itemRepository.save(newItem);
+        itemSearchEngine.index(savedItem);
+        itemSnapshotCache.onItemSaved(savedItem);
+        itemViewCache.onItemUpdated(savedItem);
+        return savedItem;
     }
 
+    // Без транзакции: попадание в кэш карточек не берёт соединение, промах загружается в своей
+    // транзакции REPEATABLE READ внутри ItemViewCache
     @Override
     public ItemDto getItemById(Integer itemId, Integer userId) {
-        Item item = itemRepository.findById(itemId)
+        ItemView view = itemViewCache.get(itemId);
+        return view.toItemDto(view.getItem().getOwner().equals(userId), LocalDateTime.now());
+    }
+
+    // Без транзакции по той же причине; при промахе версию читает репозиторий в собственной транзакции
+    @Override
+    public String findItemETag(Integer itemId, Integer userId) {
+        ItemView view = itemViewCache.getIfPresent(itemId);
+        if (view != null) {
+            return getItemETag(view.toItemDto(view.getItem().getOwner().equals(userId), LocalDateTime.now()));
+        }
+        ItemRepository.ItemVersion version = itemRepository.findVersionById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+        // Владелец видит последнее и следующее бронирование, которых без карточки не узнать,
+        // поэтому тег определится только вместе с ответом
+        if (version.getOwnerId().equals(userId)) {
+            return null;
+        }
+        return ETags.of(itemId, version.getVersion(), null, null);
+    }
+
+    // Последнее и следующее бронирование меняются со временем без смены версии, поэтому входят в тег
+    @Override
+    public String getItemETag(ItemDto item) {
+        return ETags.of(item.getId(), item.getVersion(), shortBookingId(item.getLastBooking()),
+                shortBookingId(item.getNextBooking()));
+    }
 
-        ItemDto itemDto = ItemMapper.mapToItemDto(item);
-        if (item.getOwner().getId().equals(userId)) {
-            addBookingInfoToItemDto(itemDto, itemId);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getOwnersItem(Integer ownerId) {
+        List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
+        if (items.isEmpty()) {
+            return List.of();
         }
-        addCommentsToItemDto(itemDto, itemId);
 
-        return itemDto;
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Integer, Booking> lastBookings = groupFirstByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Integer, Booking> nextBookings = groupFirstByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, now));
+        Map<Integer, List<CommentDto>> comments = commentRepository
+                .findLatestByItemIds(itemIds, itemViewProperties.getEmbeddedComments()).stream()
+                .collect(Collectors.groupingBy(CommentRepository.LatestComment::getItemId,
+                        Collectors.mapping(CommentMapper::mapToCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> {
+                    ItemDto itemDto = ItemMapper.mapToItemDto(item);
+                    Booking lastBooking = lastBookings.get(item.getId());
+                    if (lastBooking != null) {
+                        itemDto.setLastBooking(BookingMapper.mapToBookingShortDto(lastBooking));
+                    }
+                    Booking nextBooking = nextBookings.get(item.getId());
+                    if (nextBooking != null) {
+                        itemDto.setNextBooking(BookingMapper.mapToBookingShortDto(nextBooking));
+                    }
+                    itemDto.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return itemDto;
+                })
+                .toList();
     }
 
     @Override
-    public List<Item> getOwnersItem(Integer ownerId) {
-        return itemRepository.findByOwnerIdOrderById(ownerId);
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        validateAvailabilityPeriod(from, to);
+        ItemSnapshot item = itemSnapshotCache.find(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+        return sweepFreeIntervals(List.of(item), from, to).getFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemAvailabilityDto> getOwnerAvailability(Integer ownerId, LocalDateTime from, LocalDateTime to) {
+        validateAvailabilityPeriod(from, to);
+        List<ItemSnapshot> items = itemRepository.findSnapshotsByOwnerId(ownerId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        return sweepFreeIntervals(items, from, to);
     }
 
     @Override
-    public List<Item> searchingItems(String text) {
+    @Transactional(readOnly = true)
+    public List<Item> searchingItems(String text, LocalDateTime start, LocalDateTime end,
+                                     Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы");
+        }
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Период поиска задаётся началом и концом вместе");
+        }
+        if (start != null) {
+            validatePeriod(start, end);
+        }
         if (text.isBlank()) {
             return List.of();
         }
 
-        return itemRepository.searchAvailableItems(text);
+        if (start == null) {
+            return itemSearchEngine.search(text, from, size);
+        }
+        return itemSearchEngine.searchFree(text, start, end, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(Integer itemId, Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь не найдена");
+        }
+        return commentRepository.findDtosByItemId(itemId, PageRequest.of(from / size, size));
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(Integer itemId, CommentDto commentDto, Integer authorId) {
-        Item item = itemRepository.findById(itemId)
+        itemSnapshotCache.find(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
-        User user = userRepository.findById(authorId)
+        UserSnapshot author = userSnapshotCache.find(authorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
         boolean hasBooked = bookingRepository.existsByItemIdAndBookerIdAndEndBefore(
@@ -102,41 +235,81 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Только пользователи, бравшие вещь в аренду, могут оставлять комментарии");
         }
 
-        Comment comment = CommentMapper.mapToComment(commentDto, item, user);
+        Comment comment = CommentMapper.mapToComment(commentDto, itemRepository.getReferenceById(itemId),
+                userRepository.getReferenceById(authorId));
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
-        return CommentMapper.mapToCommentDto(savedComment);
+        itemRepository.incrementVersion(itemId);
+        // Строка вещи заблокирована до коммита, поэтому прочитанная версия — ровно та, что зафиксируется
+        Integer itemVersion = itemRepository.findVersionById(itemId).orElseThrow().getVersion();
+        CommentDto savedCommentDto = CommentMapper.mapToCommentDto(savedComment, author.getName());
+        itemViewCache.onCommentAdded(itemId, savedCommentDto, itemVersion);
+        return savedCommentDto;
     }
 
-    private void addBookingInfoToItemDto(ItemDto itemDto, Integer itemId) {
-        LocalDateTime now = LocalDateTime.now();
+    private void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+    }
+
+    // Длина периода ограничена: число занятых интервалов в ответе растёт вместе с ней
+    private void validateAvailabilityPeriod(LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new ValidationException(
+                    "Период не может быть длиннее " + MAX_AVAILABILITY_PERIOD.toDays() + " дней");
+        }
+    }
 
-        Optional<Booking> lastBooking = bookingRepository
-                .findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, now);
-        lastBooking.ifPresent(booking -> {
-            ItemDto.BookingShortDto dto = new ItemDto.BookingShortDto();
-            dto.setId(booking.getId());
-            dto.setBookerId(booking.getBooker().getId());
-            itemDto.setLastBooking(dto);
-        });
-
-        Optional<Booking> nextBooking = bookingRepository
-                .findFirstByItemIdAndStartAfterOrderByStartAsc(itemId, now);
-        nextBooking.ifPresent(booking -> {
-            ItemDto.BookingShortDto dto = new ItemDto.BookingShortDto();
-            dto.setId(booking.getId());
-            dto.setBookerId(booking.getBooker().getId());
-            itemDto.setNextBooking(dto);
-        });
-    }
-
-    private void addCommentsToItemDto(ItemDto itemDto, Integer itemId) {
-        List<Comment> comments = commentRepository.findByItemId(itemId);
-        List<CommentDto> commentDto = comments.stream()
-                .sorted(Comparator.comparing(Comment::getCreated).reversed())
-                .map(CommentMapper::mapToCommentDto)
+    private List<ItemAvailabilityDto> sweepFreeIntervals(List<ItemSnapshot> items, LocalDateTime from,
+                                                         LocalDateTime to) {
+        List<Integer> availableIds = items.stream()
+                .filter(ItemSnapshot::getAvailable)
+                .map(ItemSnapshot::getId)
                 .toList();
-        itemDto.setComments(commentDto);
+        List<BookingRepository.BusyInterval> busy = availableIds.isEmpty()
+                ? List.of()
+                : bookingRepository.findActiveIntervalsByItemIds(availableIds, from, to);
+        return sweepFreeIntervals(items, busy, from, to);
+    }
+
+    // Вещи и занятые интервалы идут по возрастанию id, поэтому свободные окна собираются за один проход
+    static List<ItemAvailabilityDto> sweepFreeIntervals(List<ItemSnapshot> items,
+                                                        List<BookingRepository.BusyInterval> busy,
+                                                        LocalDateTime from, LocalDateTime to) {
+        List<ItemAvailabilityDto> result = new ArrayList<>(items.size());
+        int next = 0;
+        for (ItemSnapshot item : items) {
+            List<ItemAvailabilityDto.FreeInterval> free = new ArrayList<>();
+            if (item.getAvailable()) {
+                LocalDateTime cursor = from;
+                while (next < busy.size() && busy.get(next).getItemId().equals(item.getId())) {
+                    BookingRepository.BusyInterval interval = busy.get(next++);
+                    if (interval.getStart().isAfter(cursor)) {
+                        free.add(new ItemAvailabilityDto.FreeInterval(cursor, interval.getStart()));
+                    }
+                    if (interval.getEnd().isAfter(cursor)) {
+                        cursor = interval.getEnd();
+                    }
+                }
+                if (cursor.isBefore(to)) {
+                    free.add(new ItemAvailabilityDto.FreeInterval(cursor, to));
+                }
+            }
+            result.add(new ItemAvailabilityDto(item.getId(), free));
+        }
+        return result;
+    }
+
+    private Integer shortBookingId(ItemDto.BookingShortDto booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    private Map<Integer, Booking> groupFirstByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
     }
 }
\ No newline at end of file
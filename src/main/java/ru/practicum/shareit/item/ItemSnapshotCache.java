@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.Constants;
+import ru.practicum.shareit.util.TransactionHooks;
+import ru.practicum.shareit.util.VersionedCache;
+
+import java.util.Optional;
+
+/**
+ * Снимки вещей для проверок при бронировании, комментировании и сборке карточки.
+ * Обновляются после коммита так же, как снимки пользователей в UserSnapshotCache.
+ */
+@Component
+public class ItemSnapshotCache {
+    private final ItemRepository itemRepository;
+    private final VersionedCache<Integer, ItemSnapshot> snapshots;
+
+    public ItemSnapshotCache(ItemRepository itemRepository, CacheManager cacheManager) {
+        this.itemRepository = itemRepository;
+        this.snapshots = new VersionedCache<>(cacheManager, Constants.ITEMS_CACHE, ItemSnapshot::getVersion);
+    }
+
+    public Optional<ItemSnapshot> find(Integer itemId) {
+        return snapshots.get(itemId, itemRepository::findSnapshotById);
+    }
+
+    public void onItemSaved(Item item) {
+        ItemSnapshot snapshot = ItemMapper.mapToItemSnapshot(item);
+        TransactionHooks.afterCommit(() -> snapshots.put(snapshot.getId(), snapshot));
+    }
+}
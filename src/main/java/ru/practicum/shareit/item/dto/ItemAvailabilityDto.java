@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Integer itemId;
+    private List<FreeInterval> free;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FreeInterval {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Неизменяемый снимок вещи для кэша: владелец и запрос представлены идентификаторами,
+ * а не ленивыми связями.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSnapshot {
+    private final Integer id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final Integer ownerId;
+    private final Integer requestId;
+    private final Integer version;
+}
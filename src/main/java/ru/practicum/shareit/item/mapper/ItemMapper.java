@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
 
 public class ItemMapper {
@@ -14,9 +15,28 @@ public class ItemMapper {
         if (item.getRequest() != null) {
             dto.setRequestId(item.getRequest().getId());
         }
+        dto.setVersion(item.getVersion());
         return dto;
     }
 
+    public static ItemDto mapToItemDto(ItemSnapshot item) {
+        ItemDto dto = new ItemDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setAvailable(item.getAvailable());
+        dto.setOwner(item.getOwnerId());
+        dto.setRequestId(item.getRequestId());
+        dto.setVersion(item.getVersion());
+        return dto;
+    }
+
+    public static ItemSnapshot mapToItemSnapshot(Item item) {
+        return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequest() == null ? null : item.getRequest().getId(),
+                item.getVersion());
+    }
+
     public static Item mapToItem(ItemDto itemDto, Integer owner) {
         Item item = new Item();
         item.setId(itemDto.getId());
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей для профилей без PostgreSQL.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    static final int FREE_CHECK_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, Set<Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Map<String, Integer>> termFrequencies = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Page<Item> page = itemRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        page.forEach(this::index);
+        while (page.hasNext()) {
+            page = itemRepository.findAll(page.nextPageable());
+            page.forEach(this::index);
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Integer> itemIds = rank(text).stream()
+                .skip(from)
+                .limit(size)
+                .toList();
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .filter(Item::getAvailable)
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Занятость известна только БД, поэтому кандидаты проверяются пачками в порядке ранга,
+    // пока не наберётся страница; пачка ограничена, чтобы дальняя страница не давала огромный IN (...)
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Integer> ranked = rank(text);
+        List<Item> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (int offset = 0; offset < ranked.size() && page.size() < size; offset += FREE_CHECK_BATCH_SIZE) {
+            List<Integer> batch = ranked.subList(offset, Math.min(offset + FREE_CHECK_BATCH_SIZE, ranked.size()));
+            Map<Integer, Item> free = itemRepository.findFreeByIdIn(batch, start, end).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Integer itemId : batch) {
+                Item item = free.get(itemId);
+                if (item == null) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (page.size() < size) {
+                    page.add(item);
+                }
+            }
+        }
+        return page;
+    }
+
+    private List<Integer> rank(String text) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> scores = new HashMap<>();
+        boolean firstToken = true;
+        for (String token : tokens) {
+            Map<Integer, Integer> tokenScores = new HashMap<>();
+            postings.subMap(token, true, token + Character.MAX_VALUE, false).forEach((term, itemIds) ->
+                    itemIds.forEach(itemId -> tokenScores.merge(itemId,
+                            termFrequencies.getOrDefault(itemId, Map.of()).getOrDefault(term, 0), Integer::sum)));
+            if (firstToken) {
+                scores.putAll(tokenScores);
+                firstToken = false;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((itemId, sum) -> sum + tokenScores.get(itemId));
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        Map<String, Integer> previous = termFrequencies.remove(item.getId());
+        if (previous != null) {
+            previous.keySet().forEach(term -> postings.computeIfPresent(term, (key, itemIds) -> {
+                itemIds.remove(item.getId());
+                return itemIds.isEmpty() ? null : itemIds;
+            }));
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = SearchTokenizer.tokenize(item.getName() + " " + item.getDescription())
+                .stream()
+                .collect(Collectors.toMap(Function.identity(), term -> 1, Integer::sum));
+        frequencies.keySet().forEach(term ->
+                postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(item.getId()));
+        termFrequencies.put(item.getId(), frequencies);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Как {@link #search(String, int, int)}, но без вещей с бронированиями APPROVED или WAITING,
+     * пересекающими период [start, end).
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    void index(Item item);
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок карточки вещи: данные вещи, комментарии (новые первыми)
+ * и граница бронирований — последнее завершённое и ближайшие по началу ещё не завершённые.
+ * Если список не завершённых обрезан, bookingsHorizon — начало последнего сохранённого:
+ * с этого момента следующее бронирование может оказаться среди отброшенных, и карточку нужно
+ * перечитать. Версия в item соответствует содержимому карточки, поэтому ETag ответа строится по ней.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemView {
+    private final ItemDto item;
+    private final List<CommentDto> comments;
+    private final BookingSlot lastBooking;
+    private final List<BookingSlot> activeBookings;
+    private final LocalDateTime bookingsHorizon;
+
+    public ItemDto toItemDto(boolean withBookings, LocalDateTime now) {
+        ItemDto dto = new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner(), item.getRequestId(), null, null, comments, item.getVersion());
+        if (!withBookings) {
+            return dto;
+        }
+
+        BookingSlot last = lastBooking;
+        BookingSlot next = null;
+        for (BookingSlot slot : activeBookings) {
+            if (slot.getEnd().isBefore(now) && (last == null || slot.getEnd().isAfter(last.getEnd()))) {
+                last = slot;
+            }
+            if (slot.getStart().isAfter(now) && (next == null || slot.getStart().isBefore(next.getStart()))) {
+                next = slot;
+            }
+        }
+        if (last != null) {
+            dto.setLastBooking(last.toShortDto());
+        }
+        if (next != null) {
+            dto.setNextBooking(next.toShortDto());
+        }
+        return dto;
+    }
+
+    // Обработчики коммитов двух изменений могут прийти в обратном порядке — старая версия не применяется
+    public ItemView withItem(ItemDto updatedItem) {
+        if (updatedItem.getVersion() < item.getVersion()) {
+            return this;
+        }
+        return new ItemView(updatedItem, comments, lastBooking, activeBookings, bookingsHorizon);
+    }
+
+    public boolean hasCommentBy(Integer authorId) {
+        return comments.stream().anyMatch(comment -> authorId.equals(comment.getAuthorId()));
+    }
+
+    // Карточка, загруженная после коммита, уже содержит комментарий или бронирование — повтор не добавляется
+    public ItemView withComment(CommentDto comment, int limit, int itemVersion) {
+        ItemDto versionedItem = itemVersion > item.getVersion() ? copyItem(itemVersion) : item;
+        if (comments.stream().anyMatch(existing -> existing.getId().equals(comment.getId()))) {
+            return versionedItem == item ? this : new ItemView(versionedItem, comments, lastBooking, activeBookings,
+                    bookingsHorizon);
+        }
+        List<CommentDto> updatedComments = new ArrayList<>(limit);
+        updatedComments.add(comment);
+        updatedComments.addAll(comments.subList(0, Math.min(comments.size(), limit - 1)));
+        return new ItemView(versionedItem, List.copyOf(updatedComments), lastBooking, activeBookings,
+                bookingsHorizon);
+    }
+
+    public boolean isStaleAt(LocalDateTime now) {
+        return bookingsHorizon != null && !now.isBefore(bookingsHorizon);
+    }
+
+    // Бронирование за горизонтом обрезанного списка не добавляется: карточка перечитается раньше, чем оно понадобится
+    public ItemView withBooking(BookingSlot booking, LocalDateTime now, int limit) {
+        if ((lastBooking != null && lastBooking.getId().equals(booking.getId()))
+                || activeBookings.stream().anyMatch(slot -> slot.getId().equals(booking.getId()))) {
+            return this;
+        }
+        BookingSlot last = lastBooking;
+        List<BookingSlot> updatedBookings = new ArrayList<>(activeBookings.size() + 1);
+        for (BookingSlot slot : activeBookings) {
+            if (slot.getEnd().isBefore(now)) {
+                if (last == null || slot.getEnd().isAfter(last.getEnd())) {
+                    last = slot;
+                }
+            } else {
+                updatedBookings.add(slot);
+            }
+        }
+        if (bookingsHorizon == null || booking.getStart().isBefore(bookingsHorizon)) {
+            updatedBookings.add(booking);
+            updatedBookings.sort(Comparator.comparing(BookingSlot::getStart));
+        }
+        return of(item, comments, last, updatedBookings, bookingsHorizon, limit);
+    }
+
+    // Оставляет не больше limit не завершённых бронирований; при обрезке горизонт сдвигается к последнему оставленному
+    public static ItemView of(ItemDto item, List<CommentDto> comments, BookingSlot lastBooking,
+                              List<BookingSlot> activeBookings, LocalDateTime horizon, int limit) {
+        if (activeBookings.size() <= limit) {
+            return new ItemView(item, comments, lastBooking, List.copyOf(activeBookings), horizon);
+        }
+        List<BookingSlot> kept = List.copyOf(activeBookings.subList(0, limit));
+        return new ItemView(item, comments, lastBooking, kept, kept.getLast().getStart());
+    }
+
+    private ItemDto copyItem(int version) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner(), item.getRequestId(), null, null, null, version);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BookingSlot {
+        private final Integer id;
+        private final Integer bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        public ItemDto.BookingShortDto toShortDto() {
+            ItemDto.BookingShortDto dto = new ItemDto.BookingShortDto();
+            dto.setId(id);
+            dto.setBookerId(bookerId);
+            return dto;
+        }
+    }
+}
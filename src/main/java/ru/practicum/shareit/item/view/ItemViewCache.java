@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item.view;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.config.ReadReplicaContext;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Кэш карточек вещей для GET /items/{itemId}. Карточка собирается из БД при первом обращении,
+ * а затем обновляется на месте при изменении вещи, новом комментарии или бронировании.
+ */
+@Component
+public class ItemViewCache {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate loadTransaction;
+    private final int embeddedComments;
+    private final int activeBookingsLimit;
+    private final Cache<Integer, ItemView> views;
+    private final AtomicLong authorRenames = new AtomicLong();
+
+    public ItemViewCache(ItemViewProperties properties,
+                         ItemRepository itemRepository,
+                         BookingRepository bookingRepository,
+                         CommentRepository commentRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        // REPEATABLE READ: карточка собирается несколькими запросами из одного состояния БД.
+        // Транзакция открывается только при промахе, попадание в кэш обходится без соединения
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.embeddedComments = properties.getEmbeddedComments();
+        this.activeBookingsLimit = properties.getActiveBookings();
+        this.views = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemViews");
+    }
+
+    public ItemView get(Integer itemId) {
+        ItemView view = fresh(itemId);
+        if (view != null) {
+            return view;
+        }
+        long generation = authorRenames.get();
+        ItemView[] replicaView = new ItemView[1];
+        view = views.get(itemId, id -> {
+            ItemView loaded = ReadReplicaContext.onPrimary(() -> loadTransaction.execute(status -> load(id)));
+            // Вызов уже читал с реплики: карточка отдаётся, но не кэшируется, null оставляет ключ пустым
+            if (ReadReplicaContext.isReplicaRead()) {
+                replicaView[0] = loaded;
+                return null;
+            }
+            return loaded;
+        });
+        if (view == null) {
+            return replicaView[0];
+        }
+        // Загрузка могла прочитать имя автора до переименования, которое уже сбросило карточки
+        if (authorRenames.get() != generation) {
+            views.invalidate(itemId);
+        }
+        return view;
+    }
+
+    public ItemView getIfPresent(Integer itemId) {
+        return fresh(itemId);
+    }
+
+    public void onItemUpdated(Item item) {
+        UnaryOperator<ItemView> update = view -> view.withItem(ItemMapper.mapToItemDto(item));
+        TransactionHooks.afterCommit(() -> apply(item.getId(), update));
+    }
+
+    public void onCommentAdded(Integer itemId, CommentDto comment, int itemVersion) {
+        TransactionHooks.afterCommit(() ->
+                apply(itemId, view -> view.withComment(comment, embeddedComments, itemVersion)));
+    }
+
+    public void onBookingCreated(Booking booking) {
+        ItemView.BookingSlot slot = toSlot(booking);
+        Integer itemId = booking.getItem().getId();
+        TransactionHooks.afterCommit(() -> apply(itemId, view -> view.withBooking(slot, LocalDateTime.now(),
+                activeBookingsLimit)));
+    }
+
+    public void onUserRenamed(Integer userId) {
+        TransactionHooks.afterCommit(() -> {
+            authorRenames.incrementAndGet();
+            views.asMap().values().removeIf(view -> view.hasCommentBy(userId));
+        });
+    }
+
+    // Карточка с обрезанным списком бронирований, у которой прошёл горизонт, выбрасывается
+    private ItemView fresh(Integer itemId) {
+        ItemView view = views.getIfPresent(itemId);
+        if (view != null && view.isStaleAt(LocalDateTime.now())) {
+            views.asMap().remove(itemId, view);
+            return null;
+        }
+        return view;
+    }
+
+    private void apply(Integer itemId, UnaryOperator<ItemView> update) {
+        views.asMap().computeIfPresent(itemId, (id, view) -> update.apply(view));
+    }
+
+    // Вещь читается из БД, а не из кэша снимков: её версия должна соответствовать прочитанным
+    // тут же комментариям. Загрузка идёт в транзакции REPEATABLE READ, так что все запросы
+    // видят одно состояние
+    private ItemView load(Integer itemId) {
+        ItemSnapshot item = itemRepository.findSnapshotById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<CommentDto> comments = commentRepository.findDtosByItemId(itemId, PageRequest.of(0, embeddedComments));
+        ItemView.BookingSlot lastBooking = bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, now)
+                .map(this::toSlot)
+                .orElse(null);
+        // Лишняя строка показывает, что список обрезан
+        List<ItemView.BookingSlot> activeBookings = bookingRepository
+                .findByItemIdAndEndGreaterThanEqualOrderByStartAsc(itemId, now,
+                        PageRequest.of(0, activeBookingsLimit + 1)).stream()
+                .map(this::toSlot)
+                .toList();
+
+        return ItemView.of(ItemMapper.mapToItemDto(item), comments, lastBooking, activeBookings, null,
+                activeBookingsLimit);
+    }
+
+    private ItemView.BookingSlot toSlot(Booking booking) {
+        return new ItemView.BookingSlot(booking.getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd());
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.view;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "shareit.item.view")
+public class ItemViewProperties {
+    private long maximumSize = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    // Сколько новых комментариев встраивается в карточку вещи, остальные — через GET /items/{id}/comments
+    @Min(1)
+    private int embeddedComments = 10;
+    // Сколько ближайших не завершённых бронирований хранит карточка; за ними она перечитывается из БД
+    @Min(1)
+    private int activeBookings = 10;
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Счётчик SQL-запросов текущего HTTP-запроса. Запросы группируются по форме: списки параметров
+ * IN (?, ?, ...) любой длины считаются одной формой. Если для запроса задан бюджет, каждый
+ * запрос сразу сверяется с ним.
+ * <p>
+ * Счётчик привязан к потоку, обрабатывающему запрос. Работа в других потоках — тело StreamingResponseBody
+ * выгрузок /bookings/export, @Async, CompletableFuture — в него не попадает, и бюджет на неё не действует.
+ */
+public class RequestStatements {
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)*\\)");
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int total;
+    private StatementBudget budget;
+
+    static void begin() {
+        CURRENT.set(new RequestStatements());
+    }
+
+    static RequestStatements end() {
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+        return statements;
+    }
+
+    static void applyBudget(StatementBudget budget) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.budget = budget;
+        }
+    }
+
+    static void record(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements == null) {
+            return;
+        }
+        statements.total++;
+        String shape = IN_LIST.matcher(sql).replaceAll("(?)");
+        int repeats = statements.shapes.merge(shape, 1, Integer::sum);
+        if (statements.budget != null) {
+            statements.budget.check(statements.total, shape, repeats);
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+}
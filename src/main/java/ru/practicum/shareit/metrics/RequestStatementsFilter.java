@@ -0,0 +1,46 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Считает SQL-запросы Hibernate за HTTP-запрос и пишет их число в метрику shareit.http.statements:
+ * рост значения для эндпоинта означает появившийся N+1. Метры кэшируются по паре метод и шаблон URI.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestStatementsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final Map<Tags, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatements statements = RequestStatements.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+            summaries.computeIfAbsent(tags, summaryTags -> DistributionSummary.builder("shareit.http.statements")
+                            .tags(summaryTags)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(statements.getTotal());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Имя сервисного метода, выполняемого в текущем потоке. Нужен журналу медленных запросов,
+ * чтобы по SQL было видно, какой вызов его выполнил.
+ */
+public class ServiceCallContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static String enter(String call) {
+        String previous = CURRENT.get();
+        CURRENT.set(call);
+        return previous;
+    }
+
+    static void exit(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
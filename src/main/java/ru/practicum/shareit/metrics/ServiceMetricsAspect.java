@@ -0,0 +1,101 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Время и размер результата каждого метода сервисов и репозиториев. Время вызовов репозиториев
+ * уже пишет Spring Data (spring.data.repository.invocations), здесь к нему добавляется размер результата.
+ * Метры кэшируются по набору тегов: регистрация в MeterRegistry на каждый вызов заметно дороже записи.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    private final MeterRegistry meterRegistry;
+    private final Map<Tags, Timer> callTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> sizeSummaries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Tags tags = Tags.of("service", service, "method", method, "state", state(joinPoint.getArgs()));
+
+        String previous = ServiceCallContext.enter(service + "." + method);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            recordSize("shareit.service.result.size", tags, result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(callTimers.computeIfAbsent(tags.and("exception", exception), callTags ->
+                    Timer.builder("shareit.service.calls")
+                            .tags(callTags)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)));
+            ServiceCallContext.exit(previous);
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object measureRepositoryResult(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), proxyClass -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+            return interfaces.length > 0
+                    ? interfaces[0].getSimpleName()
+                    : joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+        recordSize("shareit.repository.result.size",
+                Tags.of("repository", repository, "method", joinPoint.getSignature().getName()), result);
+        return result;
+    }
+
+    private void recordSize(String name, Tags tags, Object result) {
+        int size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            size = optional.isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+        sizeSummaries.computeIfAbsent(new MeterKey(name, tags), key -> DistributionSummary.builder(key.name())
+                        .tags(key.tags())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(size);
+    }
+
+    private String state(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState state) {
+                return state.name();
+            }
+        }
+        return "none";
+    }
+
+    private record MeterKey(String name, Tags tags) {
+    }
+}
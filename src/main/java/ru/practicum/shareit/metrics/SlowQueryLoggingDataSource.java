@@ -0,0 +1,85 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Пишет в журнал запросы дольше порога вместе с сервисным методом, который их выполнил.
+ * Видит все запросы, включая JdbcTemplate, а не только сгенерированные Hibernate.
+ */
+@Slf4j
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final long thresholdNanos;
+
+    public SlowQueryLoggingDataSource(DataSource targetDataSource, Duration threshold) {
+        super(targetDataSource);
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return logged(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return logged(super.getConnection(username, password));
+    }
+
+    private Connection logged(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return logged((Statement) result, method.getReturnType(), sqlArgument(args));
+                    }
+                    return result;
+                });
+    }
+
+    private Object logged(Statement statement, Class<?> statementType, String preparedSql) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        return invoke(statement, method, args);
+                    }
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - started;
+                        if (elapsed >= thresholdNanos) {
+                            log.warn("Медленный запрос {} мс в {}: {}", elapsed / 1_000_000,
+                                    Objects.requireNonNullElse(ServiceCallContext.current(), "вне сервисов"),
+                                    Objects.requireNonNullElse(sqlArgument(args), preparedSql));
+                        }
+                    }
+                });
+    }
+
+    private static String sqlArgument(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.ConnectionLimitPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает DataSource журналом медленных запросов после ConnectionLimitPostProcessor, то есть снаружи
+ * ограничителя соединений. Порядок задан через Ordered: аннотацию @Order у BeanPostProcessor Spring не учитывает.
+ */
+@Component
+public class SlowQueryLoggingPostProcessor implements BeanPostProcessor, Ordered {
+    public static final int ORDER = ConnectionLimitPostProcessor.ORDER + 10;
+
+    private final ObjectProvider<SqlMetricsProperties> properties;
+
+    public SlowQueryLoggingPostProcessor(ObjectProvider<SqlMetricsProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof SlowQueryLoggingDataSource) {
+            return bean;
+        }
+        SqlMetricsProperties sql = properties.getObject();
+        if (!sql.isSlowQueryLogEnabled()) {
+            return bean;
+        }
+        return new SlowQueryLoggingDataSource(dataSource, sql.getSlowQueryThreshold());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
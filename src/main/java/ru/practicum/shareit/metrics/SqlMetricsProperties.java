@@ -0,0 +1,13 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.sql")
+public class SqlMetricsProperties {
+    private boolean slowQueryLogEnabled = true;
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.exception.StatementBudgetExceededException;
+
+/**
+ * Лимиты SQL-запросов для одного эндпоинта: общее число запросов и число повторов одного
+ * SELECT. Повтор одной формы SELECT — типичный признак N+1 при ленивой загрузке в маппере.
+ * Каждое нарушение сообщается один раз за запрос.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class StatementBudget {
+    private final String endpoint;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final StatementBudgetProperties.Mode mode;
+
+    void check(int total, String shape, int repeats) {
+        if (total == maxStatements + 1) {
+            violation("Эндпоинт " + endpoint + " выполнил больше " + maxStatements + " SQL-запросов");
+        }
+        if (repeats == maxRepeats + 1 && shape.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            violation("Эндпоинт " + endpoint + " повторил запрос больше " + maxRepeats + " раз: " + shape);
+        }
+    }
+
+    private void violation(String message) {
+        if (mode == StatementBudgetProperties.Mode.FAIL) {
+            throw new StatementBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Назначает запросу бюджет SQL по шаблону эндпоинта, который известен только после выбора обработчика.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+    private final StatementBudgetProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + pattern;
+        RequestStatements.applyBudget(new StatementBudget(endpoint,
+                properties.getEndpoints().getOrDefault(endpoint, properties.getMaxStatements()),
+                properties.getMaxRepeats(), properties.getMode()));
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.sql.budget")
+public class StatementBudgetProperties {
+    private boolean enabled = true;
+    private Mode mode = Mode.LOG;
+    private int maxStatements = 20;
+    private int maxRepeats = 5;
+    /*
+     * Переопределение maxStatements для эндпоинта, ключ вида "GET /items/{itemId}". Ключ пишется в квадратных
+     * скобках, иначе Spring выбросит из него пробел, слэши и фигурные скобки; пробел в .properties экранируется:
+     * shareit.sql.budget.endpoints.[GET\ /items/{itemId}]=30
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public enum Mode {
+        LOG,
+        FAIL
+    }
+}
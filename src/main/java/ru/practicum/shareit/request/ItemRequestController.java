@@ -1,12 +1,53 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TODO Sprint add-item-requests.
  */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto createRequest(@Valid @RequestBody ItemRequestDto requestDto,
+                                        @RequestHeader(Constants.HEAD) Integer userId) {
+        return itemRequestService.createRequest(requestDto, userId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(@RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime cursorCreated,
+                                               @RequestParam(required = false) Integer cursorId,
+                                               @RequestParam(defaultValue = "20") Integer size,
+                                               @RequestHeader(Constants.HEAD) Integer userId) {
+        return itemRequestService.getOwnRequests(userId, cursorCreated, cursorId, size);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOtherRequests(@RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime cursorCreated,
+                                                 @RequestParam(required = false) Integer cursorId,
+                                                 @RequestParam(defaultValue = "20") Integer size,
+                                                 @RequestHeader(Constants.HEAD) Integer userId) {
+        return itemRequestService.getOtherRequests(userId, cursorCreated, cursorId, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequestById(@PathVariable Integer requestId,
+                                         @RequestHeader(Constants.HEAD) Integer userId) {
+        return itemRequestService.getRequestById(requestId, userId);
+    }
 }
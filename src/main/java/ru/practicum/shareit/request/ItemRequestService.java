@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto createRequest(ItemRequestDto requestDto, Integer userId);
+
+    List<ItemRequestDto> getOwnRequests(Integer userId, LocalDateTime cursorCreated, Integer cursorId, Integer size);
+
+    List<ItemRequestDto> getOtherRequests(Integer userId, LocalDateTime cursorCreated, Integer cursorId,
+                                          Integer size);
+
+    ItemRequestDto getRequestById(Integer requestId, Integer userId);
+}
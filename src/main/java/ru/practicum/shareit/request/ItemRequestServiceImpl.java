@@ -0,0 +1,105 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSnapshotCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+
+    @Override
+    public ItemRequestDto createRequest(ItemRequestDto requestDto, Integer userId) {
+        userSnapshotCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        ItemRequest request = ItemRequestMapper.mapToItemRequest(requestDto, userRepository.getReferenceById(userId));
+        request.setCreated(LocalDateTime.now());
+        return ItemRequestMapper.mapToItemRequestDto(itemRequestRepository.save(request), List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOwnRequests(Integer userId, LocalDateTime cursorCreated, Integer cursorId,
+                                               Integer size) {
+        userSnapshotCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        return findRequestsAfter(ItemRequestSpecifications.byRequestor(userId), cursorCreated, cursorId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOtherRequests(Integer userId, LocalDateTime cursorCreated, Integer cursorId,
+                                                 Integer size) {
+        userSnapshotCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        return findRequestsAfter(ItemRequestSpecifications.notByRequestor(userId), cursorCreated, cursorId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequestById(Integer requestId, Integer userId) {
+        userSnapshotCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не найден"));
+        return ItemRequestMapper.mapToItemRequestDto(request,
+                itemRepository.findAnswersByRequestIds(List.of(requestId)));
+    }
+
+    private List<ItemRequestDto> findRequestsAfter(Specification<ItemRequest> scope, LocalDateTime cursorCreated,
+                                                   Integer cursorId, Integer size) {
+        if ((cursorCreated == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать дату создания и id запроса");
+        }
+        if (size == null || size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+
+        Specification<ItemRequest> spec = scope;
+        if (cursorCreated != null) {
+            spec = spec.and(ItemRequestSpecifications.before(cursorCreated, cursorId));
+        }
+
+        List<ItemRequest> requests = itemRequestRepository.findBy(spec, query -> query
+                .sortBy(ItemRequestSpecifications.NEWEST_FIRST)
+                .limit(size)
+                .all());
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        // Ответы на всю страницу запросов одним запросом
+        Map<Integer, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIds(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.mapToItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+}
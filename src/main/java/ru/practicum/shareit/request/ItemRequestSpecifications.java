@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+
+public class ItemRequestSpecifications {
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    public static Specification<ItemRequest> byRequestor(Integer requestorId) {
+        return (root, query, cb) -> cb.equal(root.get("requestor").get("id"), requestorId);
+    }
+
+    public static Specification<ItemRequest> notByRequestor(Integer requestorId) {
+        return (root, query, cb) -> cb.notEqual(root.get("requestor").get("id"), requestorId);
+    }
+
+    public static Specification<ItemRequest> before(LocalDateTime cursorCreated, Integer cursorId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("created"), cursorCreated),
+                cb.and(cb.equal(root.get("created"), cursorCreated), cb.lessThan(root.get("id"), cursorId)));
+    }
+}
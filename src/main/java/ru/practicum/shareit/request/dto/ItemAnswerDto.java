@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAnswerDto {
+    private Integer id;
+    private String name;
+    private Integer ownerId;
+    @JsonIgnore
+    private Integer requestId;
+}
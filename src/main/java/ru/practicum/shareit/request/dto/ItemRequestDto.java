@@ -2,9 +2,9 @@ package ru.practicum.shareit.request.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TODO Sprint add-item-requests.
@@ -14,8 +14,7 @@ public class ItemRequestDto {
     private Integer id;
     @NotBlank
     private String description;
-    @NotBlank
-    private User requestor;
-    @NotBlank
+    private Integer requestorId;
     private LocalDateTime created;
+    private List<ItemAnswerDto> items;
 }
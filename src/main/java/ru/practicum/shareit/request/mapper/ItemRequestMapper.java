@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+    public static ItemRequestDto mapToItemRequestDto(ItemRequest request, List<ItemAnswerDto> items) {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setId(request.getId());
+        dto.setDescription(request.getDescription());
+        dto.setRequestorId(request.getRequestor().getId());
+        dto.setCreated(request.getCreated());
+        dto.setItems(items);
+        return dto;
+    }
+
+    public static ItemRequest mapToItemRequest(ItemRequestDto requestDto, User requestor) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription(requestDto.getDescription());
+        request.setRequestor(requestor);
+        return request;
+    }
+}
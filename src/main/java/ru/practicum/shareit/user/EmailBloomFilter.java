@@ -0,0 +1,188 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Фильтр Блума по email пользователей. Отрицательный ответ означает, что email точно свободен и
+ * запрос existsByEmail можно пропустить; положительный нужно перепроверить в БД. Пока фильтр не
+ * собран, все ответы положительные. Удалённые и заменённые email стереть нельзя — они остаются
+ * ложноположительными до пересборки, которая запускается, когда их накапливается слишком много.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final EmailFilterProperties properties;
+    private final AtomicInteger staleEmails = new AtomicInteger();
+    private final Counter negatives;
+    private final Counter positives;
+    // Запись и подмена фильтров идут под одной блокировкой, иначе put мог бы записать email в старый
+    // фильтр и прочитать rebuilding уже после подмены — тогда email не попал бы ни в один из новых
+    private final Object swapLock = new Object();
+    // Пересборка читает таблицу users постранично; ReentrantLock, а не synchronized, чтобы ожидание БД
+    // не занимало поток-носитель виртуального потока
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Bits bits;
+    // Фильтр, который сейчас пересобирается: новые email пишутся и в него, чтобы не потеряться при подмене
+    private volatile Bits rebuilding;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            EmailFilterProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.negatives = Counter.builder("shareit.user.email_filter.checks")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.positives = Counter.builder("shareit.user.email_filter.checks")
+                .tag("result", "positive")
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.email_filter.false_positive_rate", this, EmailBloomFilter::falsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.email_filter.stale", staleEmails, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        boolean positive = current == null || current.mightContain(email);
+        (positive ? positives : negatives).increment();
+        return positive;
+    }
+
+    public void put(String email) {
+        synchronized (swapLock) {
+            if (bits != null) {
+                bits.put(email);
+            }
+            if (rebuilding != null) {
+                rebuilding.put(email);
+            }
+        }
+    }
+
+    public void onEmailReleased() {
+        staleEmails.incrementAndGet();
+    }
+
+    public double falsePositiveRate() {
+        Bits current = bits;
+        return current == null ? 1.0 : current.falsePositiveRate();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildBits();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildBits() {
+        long expected = Math.max(properties.getExpectedInsertions(), 2 * userRepository.count());
+        Bits next = new Bits(expected, properties.getFalsePositiveProbability());
+        synchronized (swapLock) {
+            rebuilding = next;
+        }
+        staleEmails.set(0);
+
+        int loaded = 0;
+        Integer afterId = 0;
+        List<UserRepository.UserEmail> page;
+        do {
+            page = userRepository.findEmailsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            page.forEach(row -> next.put(row.getEmail()));
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == REBUILD_BATCH_SIZE);
+
+        synchronized (swapLock) {
+            bits = next;
+            rebuilding = null;
+        }
+        log.info("Фильтр email собран: {} адресов, оценка ложных срабатываний {}", loaded, next.falsePositiveRate());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.user.email-filter.rebuild-check-interval:10m}",
+            initialDelayString = "${shareit.user.email-filter.rebuild-check-interval:10m}")
+    public void rebuildIfDegraded() {
+        if (staleEmails.get() > properties.getMaxStaleEmails()
+                || falsePositiveRate() > 2 * properties.getFalsePositiveProbability()) {
+            rebuild();
+        }
+    }
+
+    private static class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final AtomicLong setBits = new AtomicLong();
+
+        Bits(long expectedInsertions, double falsePositiveProbability) {
+            long optimalSize = (long) Math.ceil(
+                    -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalSize + 63) / 64)));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / expectedInsertions * Math.log(2)));
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            long step = hash >>> 32 | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(hash + i * step, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(String email) {
+            long hash = hash(email);
+            long step = hash >>> 32 | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(hash + i * step, size);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate((int) (bit >>> 6), mask, (word, add) -> word | add);
+                if ((previous & mask) == 0) {
+                    setBits.incrementAndGet();
+                }
+            }
+        }
+
+        double falsePositiveRate() {
+            return Math.pow((double) setBits.get() / size, hashes);
+        }
+
+        // FNV-1a, 64 бита: старшая половина служит шагом двойного хеширования
+        private static long hash(String email) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < email.length(); i++) {
+                hash ^= email.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.user.email-filter")
+public class EmailFilterProperties {
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+    // Удалённые и заменённые email нельзя стереть из фильтра, после стольких фильтр пересобирается
+    private int maxStaleEmails = 10_000;
+    private Duration rebuildCheckInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.batch.BatchRowResult;
+import ru.practicum.shareit.batch.JsonBatchProcessor;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.ConstraintViolations;
+import ru.practicum.shareit.util.TransactionHooks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class UserBatchImporter {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_USER = "INSERT INTO users (name, email) VALUES (?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailBloomFilter emailBloomFilter;
+
+    public void importUsers(InputStream input, OutputStream output) throws IOException {
+        JsonBatchProcessor.process(objectMapper, input, output, UserDto.class, BATCH_SIZE, this::importBatch);
+    }
+
+    private List<BatchRowResult> importBatch(int firstIndex, List<UserDto> rows) {
+        Set<String> existingEmails = findExistingEmails(rows);
+        Set<String> batchEmails = new HashSet<>();
+        BatchRowResult[] results = new BatchRowResult[rows.size()];
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            UserDto user = rows.get(i);
+            String error = JsonBatchProcessor.validationError(validator, user);
+            if (error == null && (existingEmails.contains(user.getEmail()) || !batchEmails.add(user.getEmail()))) {
+                error = "Пользователь с email " + user.getEmail() + " уже существует";
+            }
+            if (error == null) {
+                accepted.add(i);
+            } else {
+                results[i] = BatchRowResult.failed(firstIndex + i, error);
+            }
+        }
+
+        List<UserDto> users = accepted.stream().map(rows::get).toList();
+        try {
+            List<Integer> ids = transactionTemplate.execute(status -> insertUsers(users));
+            for (int i = 0; i < accepted.size(); i++) {
+                results[accepted.get(i)] = BatchRowResult.created(firstIndex + accepted.get(i), ids.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, UserServiceImpl.EMAIL_CONSTRAINT, null)) {
+                throw e;
+            }
+            // Email мог занять параллельный запрос — повторяем пачку построчно, каждую строку в своей
+            // транзакции, чтобы не терять остальные строки
+            for (int i : accepted) {
+                UserDto user = rows.get(i);
+                try {
+                    List<Integer> ids = transactionTemplate.execute(status -> insertUsers(List.of(user)));
+                    results[i] = BatchRowResult.created(firstIndex + i, ids.get(0));
+                } catch (DataIntegrityViolationException ex) {
+                    if (!ConstraintViolations.isViolationOf(ex, UserServiceImpl.EMAIL_CONSTRAINT, null)) {
+                        throw ex;
+                    }
+                    results[i] = BatchRowResult.failed(firstIndex + i,
+                            "Пользователь с email " + user.getEmail() + " уже существует");
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private Set<String> findExistingEmails(List<UserDto> rows) {
+        List<String> emails = rows.stream()
+                .map(UserDto::getEmail)
+                .filter(email -> email != null && !email.isBlank())
+                .distinct()
+                .toList();
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", emails), String.class));
+    }
+
+    private List<Integer> insertUsers(List<UserDto> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setString(1, users.get(i).getName());
+                        statement.setString(2, users.get(i).getEmail());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                }, keyHolder);
+        TransactionHooks.afterCommit(() -> users.forEach(user -> emailBloomFilter.put(user.getEmail())));
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).intValue())
+                .toList();
+    }
+}
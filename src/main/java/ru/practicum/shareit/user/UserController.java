@@ -1,11 +1,22 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.util.ETags;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -15,21 +26,46 @@ import java.util.List;
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final CacheControl USER_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1))
+            .cachePrivate()
+            .mustRevalidate();
+
     private final UserService userService;
+    private final UserBatchImporter userBatchImporter;
 
     @PostMapping
     public UserDto createUser(@Valid @RequestBody UserDto userDto) {
         return UserMapper.mapToUserDto(userService.createUser(UserMapper.mapToUser(userDto)));
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void createUsers(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userBatchImporter.importUsers(body, response.getOutputStream());
+    }
+
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable Integer userId, @RequestBody UserDto userDto) {
         return UserMapper.mapToUserDto(userService.updateUser(userId, UserMapper.mapToUser(userDto)));
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Integer userId) {
-        return UserMapper.mapToUserDto(userService.getUserById(userId));
+    public ResponseEntity<UserDto> getUserById(@PathVariable Integer userId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        // Тег и тело из одного снимка, поэтому 304 не подтвердит устаревшие данные
+        UserSnapshot user = userService.getUserById(userId);
+        String etag = ETags.of(user.getId(), user.getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(USER_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(USER_CACHE_CONTROL)
+                .body(UserMapper.mapToUserDto(user));
     }
 
     @GetMapping
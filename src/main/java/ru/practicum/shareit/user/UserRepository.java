@@ -1,8 +1,28 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Integer> {
     boolean existsByEmail(String email);
+
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserSnapshot(u.id, u.name, u.email, u.version) " +
+            "FROM User u WHERE u.id = :id")
+    Optional<UserSnapshot> findSnapshotById(@Param("id") Integer id);
+
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserEmail> findEmailsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    interface UserEmail {
+        Integer getId();
+
+        String getEmail();
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -9,7 +10,7 @@ public interface UserService {
 
     User updateUser(Integer id, User user);
 
-    User getUserById(Integer id);
+    UserSnapshot getUserById(Integer id);
 
     List<User> getAllUsers();
 
@@ -2,37 +2,48 @@ package ru.practicum.shareit.user;
 
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ConstraintViolations;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final ItemViewCache itemViewCache;
 
     @Override
     public User createUser(User user) {
         if (user.getEmail() == null || user.getEmail().isBlank()) {
             throw new ValidationException("Email не может быть пустым");
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует");
-        }
-        return userRepository.save(user);
+        checkEmailIsFree(user.getEmail());
+        User savedUser = saveWithUniqueEmail(user);
+        emailBloomFilter.put(savedUser.getEmail());
+        userSnapshotCache.onUserSaved(savedUser);
+        return savedUser;
     }
 
     @Override
     public User updateUser(Integer id, User user) {
         User newUser = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        if (user.getEmail() != null && !user.getEmail().equals(newUser.getEmail())) {
-            if (userRepository.existsByEmail(user.getEmail())) {
-                throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует");
-            }
+        boolean emailChanged = user.getEmail() != null && !user.getEmail().equals(newUser.getEmail());
+        boolean nameChanged = user.getName() != null && !user.getName().equals(newUser.getName());
+        if (emailChanged) {
+            checkEmailIsFree(user.getEmail());
         }
         if (user.getName() != null) {
             newUser.setName(user.getName());
@@ -40,17 +51,27 @@ public class UserServiceImpl implements UserService {
         if (user.getEmail() != null) {
             newUser.setEmail(user.getEmail());
         }
-        return userRepository.save(newUser);
+        User savedUser = saveWithUniqueEmail(newUser);
+        userSnapshotCache.onUserSaved(savedUser);
+        if (nameChanged) {
+            itemViewCache.onUserRenamed(id);
+        }
+        if (emailChanged) {
+            emailBloomFilter.put(savedUser.getEmail());
+            emailBloomFilter.onEmailReleased();
+        }
+        return savedUser;
     }
 
     @Override
-    public User getUserById(Integer id) {
-        User user = userRepository.findById(id)
+    @Transactional(readOnly = true)
+    public UserSnapshot getUserById(Integer id) {
+        return userSnapshotCache.find(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        return user;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -58,5 +79,26 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Integer id) {
         userRepository.deleteById(id);
+        userSnapshotCache.onUserDeleted(id);
+        emailBloomFilter.onEmailReleased();
+    }
+
+    // Отрицательный ответ фильтра избавляет от запроса; гонку двух регистраций ловит UQ_USER_EMAIL
+    private void checkEmailIsFree(String email) {
+        if (emailBloomFilter.mightContain(email) && userRepository.existsByEmail(email)) {
+            throw new ConflictException("Пользователь с email " + email + " уже существует");
+        }
+    }
+
+    // Конфликтом считается только нарушение UQ_USER_EMAIL, остальные ошибки целостности пробрасываются как есть
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, EMAIL_CONSTRAINT, null)) {
+                throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует");
+            }
+            throw e;
+        }
     }
 }
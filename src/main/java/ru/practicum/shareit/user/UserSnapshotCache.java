@@ -0,0 +1,41 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Constants;
+import ru.practicum.shareit.util.TransactionHooks;
+import ru.practicum.shareit.util.VersionedCache;
+
+import java.util.Optional;
+
+/**
+ * Снимки пользователей для проверок существования и GET /users/{userId}.
+ * Изменения попадают в кэш после коммита, а версия снимка не даёт чтению,
+ * начатому до коммита, вернуть в кэш прежнее состояние.
+ */
+@Component
+public class UserSnapshotCache {
+    private final UserRepository userRepository;
+    private final VersionedCache<Integer, UserSnapshot> snapshots;
+
+    public UserSnapshotCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.snapshots = new VersionedCache<>(cacheManager, Constants.USERS_CACHE, UserSnapshot::getVersion);
+    }
+
+    public Optional<UserSnapshot> find(Integer userId) {
+        return snapshots.get(userId, userRepository::findSnapshotById);
+    }
+
+    public void onUserSaved(User user) {
+        UserSnapshot snapshot = UserMapper.mapToUserSnapshot(user);
+        TransactionHooks.afterCommit(() -> snapshots.put(snapshot.getId(), snapshot));
+    }
+
+    public void onUserDeleted(Integer userId) {
+        TransactionHooks.afterCommit(() -> snapshots.evict(userId));
+    }
+}
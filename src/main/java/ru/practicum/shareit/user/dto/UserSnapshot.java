@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Неизменяемый снимок пользователя для кэша: без прокси Hibernate и с версией строки.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSnapshot {
+    private final Integer id;
+    private final String name;
+    private final String email;
+    private final Integer version;
+}
@@ -21,4 +21,6 @@ public class User {
     private String name;
     @Column(nullable = false)
     private String email;
+    @Version
+    private Integer version;
 }
@@ -2,4 +2,6 @@ package ru.practicum.shareit.util;
 
 public class Constants {
     public static final String HEAD = "X-Sharer-User-Id";
+    public static final String USERS_CACHE = "users";
+    public static final String ITEMS_CACHE = "items";
 }
\ No newline at end of file
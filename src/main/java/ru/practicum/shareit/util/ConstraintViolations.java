@@ -0,0 +1,34 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+public class ConstraintViolations {
+    /**
+     * Нарушено ли ограничение с указанным именем. Имя ищется в ответе Hibernate и в тексте ошибки
+     * драйвера (H2 добавляет к имени индекса суффикс), sqlState, если задан, проверяется как есть.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException exception, String constraint,
+                                        String sqlState) {
+        String name = constraint.toLowerCase(Locale.ROOT);
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(name)) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException) {
+                if (sqlState != null && sqlState.equals(sqlException.getSQLState())) {
+                    return true;
+                }
+                String message = sqlException.getMessage();
+                if (message != null && message.toLowerCase(Locale.ROOT).contains(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.util;
+
+/**
+ * Сравнение тега ресурса с заголовком If-None-Match. По RFC 9110 для If-None-Match
+ * используется слабое сравнение, поэтому префикс W/ не учитывается.
+ */
+public class ETags {
+    public static String of(Object... parts) {
+        StringBuilder etag = new StringBuilder();
+        for (Object part : parts) {
+            if (!etag.isEmpty()) {
+                etag.append('-');
+            }
+            etag.append(part);
+        }
+        return etag.toString();
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String quoted = "\"" + etag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import ru.practicum.shareit.config.ReadReplicaContext;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Кэш неизменяемых снимков поверх Caffeine-кэша из CacheManager, поэтому настройки и метрики
+ * spring.cache сохраняются. Из двух снимков одного ключа остаётся снимок с большей версией,
+ * а снимок, прочитанный до удаления ключа, в кэш не возвращается. Промах загружается с основной БД;
+ * если вызов уже читает с реплики, снимок отдаётся, но не кэшируется.
+ */
+public class VersionedCache<K, V> {
+    private final Cache<Object, Object> cache;
+    private final ToIntFunction<V> version;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VersionedCache(CacheManager cacheManager, String name, ToIntFunction<V> version) {
+        if (!(cacheManager.getCache(name) instanceof CaffeineCache caffeineCache)) {
+            throw new IllegalStateException("Кэш " + name + " должен быть Caffeine-кэшем");
+        }
+        this.cache = caffeineCache.getNativeCache();
+        this.version = version;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        V cached = (V) cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = evictions.get();
+        Optional<V> loaded = ReadReplicaContext.onPrimary(() -> loader.apply(key));
+        if (ReadReplicaContext.isReplicaRead()) {
+            return loaded;
+        }
+        loaded.ifPresent(value -> {
+            put(key, value);
+            if (evictions.get() != generation) {
+                cache.invalidate(key);
+            }
+        });
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void put(K key, V value) {
+        cache.asMap().merge(key, value, (current, candidate) ->
+                version.applyAsInt((V) current) > version.applyAsInt((V) candidate) ? current : candidate);
+    }
+
+    public void evict(K key) {
+        evictions.incrementAndGet();
+        cache.invalidate(key);
+    }
+}
@@ -0,0 +1,8 @@
+-- Фаза заполняется значением FUTURE без переписывания таблицы; BookingPhaseSweeper переведёт
+-- существующие строки в нужную фазу, а запросы до этого момента страхуются сравнением дат.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_phase_start ON bookings (owner_id, phase, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_end ON bookings (phase, end_date);
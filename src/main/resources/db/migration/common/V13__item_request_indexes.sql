@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
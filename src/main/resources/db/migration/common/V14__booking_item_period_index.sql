@@ -0,0 +1,4 @@
+-- Покрывает анти-соединение поиска свободных вещей (item_id, start_date < :end, end_date > :start)
+-- и заменяет ix_bookings_item_start, который является его префиксом.
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+DROP INDEX IF EXISTS ix_bookings_item_start;
@@ -0,0 +1,8 @@
+-- Статус вместо dispatched_at IS NULL: события, исчерпавшие попытки, уходят в FAILED и не остаются в очереди.
+-- Частичный индекс V9 есть только в PostgreSQL, поэтому очередь и очистка получают общие индексы.
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS status VARCHAR(16) DEFAULT 'PENDING' NOT NULL;
+UPDATE booking_events SET status = 'DISPATCHED' WHERE dispatched_at IS NOT NULL;
+
+DROP INDEX IF EXISTS ix_booking_events_pending;
+CREATE INDEX IF NOT EXISTS ix_booking_events_status_attempts ON booking_events (status, attempts, id);
+CREATE INDEX IF NOT EXISTS ix_booking_events_status_dispatched ON booking_events (status, dispatched_at);
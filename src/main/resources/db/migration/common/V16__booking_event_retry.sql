@@ -0,0 +1,9 @@
+-- next_attempt_at откладывает повтор после сбоя (пауза растёт экспоненциально), delivered_to перечисляет
+-- получателей, уже принявших событие, чтобы повтор уходил только остальным.
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS delivered_to VARCHAR(1024);
+UPDATE booking_events SET next_attempt_at = created WHERE next_attempt_at IS NULL;
+ALTER TABLE booking_events ALTER COLUMN next_attempt_at SET NOT NULL;
+
+DROP INDEX IF EXISTS ix_booking_events_status_attempts;
+CREATE INDEX IF NOT EXISTS ix_booking_events_status_next_attempt ON booking_events (status, next_attempt_at);
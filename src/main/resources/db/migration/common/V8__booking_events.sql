@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    dispatched_at TIMESTAMP WITHOUT TIME ZONE,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking_event PRIMARY KEY (id)
+);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS ix_items_search ON items
+    USING GIN (to_tsvector('simple', name || ' ' || description))
+    WHERE is_available = true;
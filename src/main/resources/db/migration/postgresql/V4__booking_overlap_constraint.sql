@@ -0,0 +1,41 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Данные, накопленные до ограничения, могут уже пересекаться. Ожидающее бронирование, которое
+-- пересекается с подтверждённым, отклоняется; из двух пересекающихся ожидающих отклоняется более позднее
+UPDATE bookings b SET status = 'REJECTED'
+WHERE b.status = 'WAITING'
+  AND EXISTS (SELECT 1 FROM bookings a
+              WHERE a.item_id = b.item_id
+                AND a.status = 'APPROVED'
+                AND tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date));
+
+UPDATE bookings b SET status = 'REJECTED'
+WHERE b.status = 'WAITING'
+  AND EXISTS (SELECT 1 FROM bookings a
+              WHERE a.item_id = b.item_id
+                AND a.id < b.id
+                AND a.status = 'WAITING'
+                AND tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date));
+
+-- Пересечение подтверждённых бронирований автоматически не разрешить: миграция останавливается со списком пар
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(a.id || '/' || b.id, ', ') INTO conflicts
+    FROM bookings a
+    JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+    WHERE a.status = 'APPROVED'
+      AND b.status = 'APPROVED'
+      AND tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date);
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Пересекающиеся подтверждённые бронирования (id/id): %. Отклоните лишние и повторите миграцию',
+            conflicts;
+    END IF;
+END $$;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_bookings_no_overlap;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_no_overlap
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('APPROVED', 'WAITING'));
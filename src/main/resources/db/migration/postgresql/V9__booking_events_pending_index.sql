@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_booking_events_pending ON booking_events (attempts, id) WHERE dispatched_at IS NULL;
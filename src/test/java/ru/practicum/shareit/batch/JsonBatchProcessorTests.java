@@ -0,0 +1,55 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonBatchProcessorTests {
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<Integer> handledIndexes = new ArrayList<>();
+
+	@Test
+	void rowOfWrongTypeFailsAloneAndImportContinues() throws Exception {
+		JsonNode results = process("[{\"name\":\"a\"},{\"name\":[1,2]},{\"name\":\"c\"},{\"name\":\"d\"}]");
+
+		assertEquals(4, results.size());
+		assertEquals(0, results.get(0).get("id").asInt());
+		assertTrue(results.get(1).get("error").asText().startsWith("Некорректная строка"));
+		assertEquals(1, results.get(1).get("index").asInt());
+		assertEquals(2, results.get(2).get("id").asInt());
+		assertEquals(3, results.get(3).get("id").asInt());
+		assertEquals(List.of(0, 2, 3), handledIndexes);
+	}
+
+	@Test
+	void syntaxErrorStopsImport() throws Exception {
+		JsonNode results = process("[{\"name\":\"a\"},{\"name\": ]");
+
+		assertEquals(2, results.size());
+		assertEquals(0, results.get(0).get("id").asInt());
+		assertTrue(results.get(1).get("error").asText().startsWith("Некорректный JSON"));
+		assertEquals(List.of(0), handledIndexes);
+	}
+
+	// Обработчик «создаёт» строку с id, равным её номеру в массиве
+	private JsonNode process(String json) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		JsonBatchProcessor.process(objectMapper, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+				output, UserDto.class, 2, (firstIndex, rows) -> IntStream.range(0, rows.size())
+						.peek(i -> handledIndexes.add(firstIndex + i))
+						.mapToObj(i -> BatchRowResult.created(firstIndex + i, firstIndex + i))
+						.toList());
+		return objectMapper.readTree(output.toByteArray());
+	}
+}
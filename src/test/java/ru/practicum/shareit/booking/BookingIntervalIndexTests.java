@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTests {
+	private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+	private BookingRepository bookingRepository;
+	private BookingIntervalIndex index;
+
+	@BeforeEach
+	void setUp() {
+		bookingRepository = mock(BookingRepository.class);
+		index = new BookingIntervalIndex(new BookingIndexProperties(), bookingRepository);
+	}
+
+	@Test
+	void loadsItemOnceAndAnswersFromMergedBlocks() {
+		when(bookingRepository.findActiveByItemIdAndEndAfter(eq(1), any()))
+				.thenReturn(List.of(booking(0, 2), booking(2, 4)));
+		when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(eq(1), anyCollection(), any(), any()))
+				.thenReturn(true);
+
+		assertTrue(index.overlaps(1, hour(3), hour(5)));
+		assertFalse(index.overlaps(1, hour(4), hour(6)));
+		assertFalse(index.overlaps(1, hour(-2), hour(0)));
+
+		verify(bookingRepository, times(1)).findActiveByItemIdAndEndAfter(eq(1), any());
+	}
+
+	@Test
+	void addedBookingIsVisibleWithoutReload() {
+		when(bookingRepository.findActiveByItemIdAndEndAfter(eq(1), any())).thenReturn(List.of());
+		when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(eq(1), anyCollection(), any(), any()))
+				.thenReturn(true);
+
+		assertFalse(index.overlaps(1, hour(0), hour(2)));
+		index.add(1, hour(0), hour(2));
+
+		assertTrue(index.overlaps(1, hour(1), hour(3)));
+		verify(bookingRepository, times(1)).findActiveByItemIdAndEndAfter(eq(1), any());
+	}
+
+	@Test
+	void releaseOutsideTransactionReloadsItem() {
+		when(bookingRepository.findActiveByItemIdAndEndAfter(eq(1), any()))
+				.thenReturn(List.of(booking(0, 2)))
+				.thenReturn(List.of());
+
+		index.overlaps(1, hour(5), hour(6));
+		index.release(1);
+
+		assertFalse(index.overlaps(1, hour(0), hour(2)));
+		verify(bookingRepository, times(2)).findActiveByItemIdAndEndAfter(eq(1), any());
+		verify(bookingRepository, never())
+				.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(any(), anyCollection(), any(), any());
+	}
+
+	@Test
+	void staleBlockIsRecheckedAndDropped() {
+		// Бронирование отклонили на другом узле: в кэше блок есть, в БД — нет
+		when(bookingRepository.findActiveByItemIdAndEndAfter(eq(1), any()))
+				.thenReturn(List.of(booking(0, 2)))
+				.thenReturn(List.of());
+		when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(eq(1), anyCollection(), any(), any()))
+				.thenReturn(false);
+
+		assertFalse(index.overlaps(1, hour(0), hour(2)));
+		assertFalse(index.overlaps(1, hour(0), hour(2)));
+
+		verify(bookingRepository, times(2)).findActiveByItemIdAndEndAfter(eq(1), any());
+		verify(bookingRepository, times(1))
+				.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(eq(1), anyCollection(), any(), any());
+	}
+
+	private static LocalDateTime hour(int hours) {
+		return BASE.plusHours(hours);
+	}
+
+	private static Booking booking(int startHour, int endHour) {
+		Booking booking = new Booking();
+		booking.setStart(hour(startHour));
+		booking.setEnd(hour(endHour));
+		return booking;
+	}
+}
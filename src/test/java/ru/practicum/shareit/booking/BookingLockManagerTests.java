@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingLockManagerTests {
+	private TransactionTemplate transactionTemplate;
+	private ItemRepository itemRepository;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		itemRepository = mock(ItemRepository.class);
+	}
+
+	@Test
+	void sameItemIsSerialized() throws Exception {
+		BookingLockManager lockManager = lockManager(BookingLockProperties.Mode.LOCAL, 4);
+		AtomicInteger inside = new AtomicInteger();
+		AtomicInteger maxInside = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return lockManager.withItemLock(7, () -> {
+						maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+						sleep();
+						return inside.decrementAndGet();
+					});
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, maxInside.get());
+	}
+
+	@Test
+	void databaseModeLocksItemRow() {
+		lockManager(BookingLockProperties.Mode.DATABASE, 4).withItemLock(7, () -> null);
+
+		verify(itemRepository).findByIdForUpdate(7);
+	}
+
+	@Test
+	void localModeSkipsRowLock() {
+		lockManager(BookingLockProperties.Mode.LOCAL, 4).withItemLock(7, () -> null);
+
+		verify(itemRepository, never()).findByIdForUpdate(any());
+	}
+
+	@Test
+	void stripesMustBePositive() {
+		Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+		BookingLockProperties properties = new BookingLockProperties();
+
+		assertTrue(validator.validate(properties).isEmpty());
+		properties.setStripes(0);
+		assertFalse(validator.validate(properties).isEmpty());
+	}
+
+	private BookingLockManager lockManager(BookingLockProperties.Mode mode, int stripes) {
+		BookingLockProperties properties = new BookingLockProperties();
+		properties.setMode(mode);
+		properties.setStripes(stripes);
+		return new BookingLockManager(properties, transactionTemplate, itemRepository);
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(5);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
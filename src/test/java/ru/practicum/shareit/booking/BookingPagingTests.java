@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingPagingTests {
+	// Больше размера страницы по умолчанию
+	private static final int BOOKINGS = 23;
+	private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private int ownerId;
+	private int bookerId;
+	// Новые первыми, как в ответе
+	private final List<Integer> newestFirst = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ownerId = createUser();
+		bookerId = createUser();
+		int itemId = create("/items", ownerId, Map.of("name", "Дрель", "description", "Ударная", "available", true));
+		for (int i = 0; i < BOOKINGS; i++) {
+			newestFirst.addFirst(create("/bookings", bookerId, Map.of("itemId", itemId,
+					"start", START.plusDays(2L * i).toString(),
+					"end", START.plusDays(2L * i + 1).toString())));
+		}
+	}
+
+	@Test
+	void withoutPagingParamsWholeListIsReturned() throws Exception {
+		assertEquals(newestFirst, ids(get("/bookings").header(Constants.HEAD, bookerId)));
+		assertEquals(newestFirst, ids(get("/bookings/owner").header(Constants.HEAD, ownerId)));
+	}
+
+	@Test
+	void offsetNeedNotBeMultipleOfSize() throws Exception {
+		assertEquals(newestFirst.subList(3, 7), ids(get("/bookings").param("from", "3").param("size", "4")
+				.header(Constants.HEAD, bookerId)));
+		assertEquals(newestFirst.subList(5, 7), ids(get("/bookings/owner").param("from", "5").param("size", "2")
+				.header(Constants.HEAD, ownerId)));
+	}
+
+	@Test
+	void onlyFromUsesDefaultSize() throws Exception {
+		assertEquals(newestFirst.subList(1, 21), ids(get("/bookings").param("from", "1")
+				.header(Constants.HEAD, bookerId)));
+	}
+
+	@Test
+	void pageSizeIsCapped() throws Exception {
+		mockMvc.perform(get("/bookings").param("size", "501").header(Constants.HEAD, bookerId))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/bookings/owner").param("cursorStart", START.toString()).param("cursorId", "1")
+						.param("size", "501").header(Constants.HEAD, ownerId))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<Integer> ids(MockHttpServletRequestBuilder request) throws Exception {
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Integer> ids = new ArrayList<>();
+		for (JsonNode booking : objectMapper.readTree(response)) {
+			ids.add(booking.get("id").asInt());
+		}
+		return ids;
+	}
+
+	private int createUser() throws Exception {
+		return create("/users", null, Map.of("name", "user", "email", UUID.randomUUID() + "@paging.ru"));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		MockHttpServletRequestBuilder request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asInt();
+	}
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingPhaseSweeperTests {
+	private static final LocalDateTime NOW = LocalDateTime.now();
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private BookingPhaseSweeper sweeper;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName("phase-sweeper")
+				.build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE bookings (id INT PRIMARY KEY, start_date TIMESTAMP, end_date TIMESTAMP, " +
+				"phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL)");
+		BookingPhaseProperties properties = new BookingPhaseProperties();
+		// Меньше числа строк, чтобы проверить проход несколькими пачками
+		properties.setBatchSize(2);
+		sweeper = new BookingPhaseSweeper(jdbcTemplate, properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void movesBookingsAlongPhasesInBatches() {
+		insert(1, NOW.minusDays(3), NOW.minusDays(2), BookingPhase.FUTURE);
+		insert(2, NOW.minusDays(3), NOW.minusDays(1), BookingPhase.CURRENT);
+		insert(3, NOW.minusDays(2), NOW.minusHours(1), BookingPhase.FUTURE);
+		insert(4, NOW.minusHours(1), NOW.plusHours(1), BookingPhase.FUTURE);
+		insert(5, NOW.minusHours(2), NOW.plusHours(2), BookingPhase.FUTURE);
+		insert(6, NOW.minusHours(3), NOW.plusHours(3), BookingPhase.FUTURE);
+		insert(7, NOW.plusDays(1), NOW.plusDays(2), BookingPhase.FUTURE);
+
+		sweeper.sweep();
+
+		assertEquals(BookingPhase.PAST, phase(1));
+		assertEquals(BookingPhase.PAST, phase(2));
+		assertEquals(BookingPhase.PAST, phase(3));
+		assertEquals(BookingPhase.CURRENT, phase(4));
+		assertEquals(BookingPhase.CURRENT, phase(5));
+		assertEquals(BookingPhase.CURRENT, phase(6));
+		assertEquals(BookingPhase.FUTURE, phase(7));
+	}
+
+	@Test
+	void finishedFutureBookingSkipsCurrent() {
+		insert(1, NOW.minusDays(2), NOW.minusDays(1), BookingPhase.FUTURE);
+
+		sweeper.sweep();
+
+		assertEquals(BookingPhase.PAST, phase(1));
+	}
+
+	private void insert(int id, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+		jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, phase) VALUES (?, ?, ?, ?)",
+				id, start, end, phase.name());
+	}
+
+	private BookingPhase phase(int id) {
+		return BookingPhase.valueOf(jdbcTemplate.queryForObject("SELECT phase FROM bookings WHERE id = ?",
+				String.class, id));
+	}
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingStatusUpdaterTests {
+	private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void onlyWaitingBookingsOfTheOwnerAreUpdated() throws Exception {
+		int ownerId = createUser();
+		int otherOwnerId = createUser();
+		int bookerId = createUser();
+		int itemId = createItem(ownerId);
+		int otherItemId = createItem(otherOwnerId);
+		int first = createBooking(bookerId, itemId, 0);
+		int second = createBooking(bookerId, itemId, 2);
+		int decided = createBooking(bookerId, itemId, 4);
+		int foreign = createBooking(bookerId, otherItemId, 0);
+		perform(patch("/bookings/" + decided).param("approved", "false").header(Constants.HEAD, ownerId));
+
+		JsonNode updated = perform(patch("/bookings").param("approved", "true").header(Constants.HEAD, ownerId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(List.of(second, decided, foreign, first))));
+
+		assertEquals(2, updated.size());
+		assertEquals(first, updated.get(0).get("id").asInt());
+		assertEquals(second, updated.get(1).get("id").asInt());
+		assertEquals("APPROVED", status(first, ownerId));
+		assertEquals("APPROVED", status(second, ownerId));
+		assertEquals("REJECTED", status(decided, ownerId));
+		assertEquals("WAITING", status(foreign, otherOwnerId));
+	}
+
+	@Test
+	void repeatedDecisionUpdatesNothing() throws Exception {
+		int ownerId = createUser();
+		int bookerId = createUser();
+		int bookingId = createBooking(bookerId, createItem(ownerId), 0);
+		String ids = objectMapper.writeValueAsString(List.of(bookingId));
+
+		assertEquals(1, perform(patch("/bookings").param("approved", "true").header(Constants.HEAD, ownerId)
+				.contentType(MediaType.APPLICATION_JSON).content(ids)).size());
+		assertEquals(0, perform(patch("/bookings").param("approved", "false").header(Constants.HEAD, ownerId)
+				.contentType(MediaType.APPLICATION_JSON).content(ids)).size());
+		assertEquals("APPROVED", status(bookingId, ownerId));
+	}
+
+	private String status(int bookingId, int userId) throws Exception {
+		return perform(get("/bookings/" + bookingId).header(Constants.HEAD, userId)).get("status").asText();
+	}
+
+	private int createUser() throws Exception {
+		return create("/users", null, Map.of("name", "user", "email", UUID.randomUUID() + "@bulk.ru"));
+	}
+
+	private int createItem(int ownerId) throws Exception {
+		return create("/items", ownerId, Map.of("name", "Дрель", "description", "Ударная", "available", true));
+	}
+
+	private int createBooking(int bookerId, int itemId, int dayOffset) throws Exception {
+		return create("/bookings", bookerId, Map.of("itemId", itemId,
+				"start", START.plusDays(dayOffset).toString(),
+				"end", START.plusDays(dayOffset + 1).toString()));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		MockHttpServletRequestBuilder request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		return perform(request).get("id").asInt();
+	}
+
+	private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response);
+	}
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingEventDispatcherTests {
+	private BookingEventRepository repository;
+	private JdbcTemplate jdbcTemplate;
+	private BookingEventProperties properties;
+	private boolean listenerFails;
+	private int auditDeliveries;
+	private BookingEventDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(BookingEventRepository.class);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		properties = new BookingEventProperties();
+		properties.setMaxAttempts(3);
+		BookingEventListener audit = listener("audit", () -> auditDeliveries++);
+		BookingEventListener notifier = listener("notifier", () -> {
+			if (listenerFails) {
+				throw new IllegalStateException("получатель недоступен");
+			}
+		});
+		dispatcher = new BookingEventDispatcher(repository, List.of(audit, notifier), properties,
+				transactionTemplate, jdbcTemplate);
+	}
+
+	@Test
+	void deliveredEventIsMarkedDispatched() {
+		BookingEvent event = pending(0);
+
+		dispatcher.dispatchPending();
+
+		assertEquals(BookingEventStatus.DISPATCHED, event.getStatus());
+		assertNotNull(event.getDispatchedAt());
+	}
+
+	@Test
+	void failedEventStaysPendingUntilAttemptsRunOut() {
+		listenerFails = true;
+		BookingEvent retried = pending(0);
+
+		dispatcher.dispatchPending();
+		assertEquals(BookingEventStatus.PENDING, retried.getStatus());
+		assertEquals(1, retried.getAttempts());
+
+		BookingEvent exhausted = pending(2);
+		dispatcher.dispatchPending();
+		assertEquals(BookingEventStatus.FAILED, exhausted.getStatus());
+		assertEquals(3, exhausted.getAttempts());
+	}
+
+	@Test
+	void retryIsDelayedExponentially() {
+		listenerFails = true;
+		BookingEvent event = pending(0);
+
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatchPending();
+		assertFalse(event.getNextAttemptAt().isBefore(before.plus(properties.getRetryDelay())));
+
+		before = LocalDateTime.now();
+		dispatcher.dispatchPending();
+		assertEquals(2, event.getAttempts());
+		assertFalse(event.getNextAttemptAt().isBefore(before.plus(properties.getRetryDelay().multipliedBy(2))));
+	}
+
+	@Test
+	void retryDoesNotRedeliverToListenersThatSucceeded() {
+		listenerFails = true;
+		BookingEvent event = pending(0);
+
+		dispatcher.dispatchPending();
+		assertEquals("audit", event.getDeliveredTo());
+
+		listenerFails = false;
+		dispatcher.dispatchPending();
+		assertEquals(BookingEventStatus.DISPATCHED, event.getStatus());
+		assertEquals(1, auditDeliveries);
+		assertEquals("audit,notifier", event.getDeliveredTo());
+	}
+
+	@Test
+	void purgeDeletesInBatchesUntilShortBatch() {
+		properties.setPurgeBatchSize(2);
+		when(jdbcTemplate.update(anyString(), any(), eq(2))).thenReturn(2, 2, 1);
+
+		dispatcher.purgeDispatched();
+
+		verify(jdbcTemplate, times(3)).update(anyString(), any(), eq(2));
+	}
+
+	private BookingEvent pending(int attempts) {
+		BookingEvent event = new BookingEvent();
+		event.setId(1L);
+		event.setType(BookingEventType.BOOKING_CREATED);
+		event.setAttempts(attempts);
+		when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByAttemptsAscIdAsc(
+				eq(BookingEventStatus.PENDING), any(), any()))
+				.thenReturn(List.of(event));
+		return event;
+	}
+
+	private BookingEventListener listener(String name, Runnable action) {
+		return new BookingEventListener() {
+			@Override
+			public void onBookingEvent(BookingEvent event) {
+				action.run();
+			}
+
+			@Override
+			public String name() {
+				return name;
+			}
+		};
+	}
+}
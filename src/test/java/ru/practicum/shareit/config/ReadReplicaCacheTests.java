@@ -0,0 +1,79 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.util.Constants;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReadReplicaCacheTests.URL,
+		"shareit.datasource.routing.enabled=true",
+		"shareit.datasource.routing.replicas[0].url=" + ReadReplicaCacheTests.URL,
+		"shareit.datasource.routing.replicas[0].username=username",
+		"shareit.datasource.routing.replicas[0].password=password"
+})
+@AutoConfigureMockMvc
+class ReadReplicaCacheTests {
+	// Реплика — та же база в памяти: проверяется, что загрузки промахов не помечаются как чтения с реплики
+	static final String URL = "jdbc:h2:mem:routing-cache;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ItemViewCache itemViewCache;
+
+	@Test
+	void readsFillCachesWithRoutingOn() throws Exception {
+		int ownerId = createUser();
+		int viewerId = createUser();
+		int itemId = create("/items", ownerId, Map.of("name", "Дрель", "description", "Ударная", "available", true));
+		cacheManager.getCache(Constants.USERS_CACHE).clear();
+		cacheManager.getCache(Constants.ITEMS_CACHE).clear();
+		assertNull(itemViewCache.getIfPresent(itemId));
+
+		mockMvc.perform(get("/users/" + viewerId)).andExpect(status().isOk());
+		mockMvc.perform(get("/items/" + itemId).header(Constants.HEAD, viewerId)).andExpect(status().isOk());
+
+		assertNotNull(cacheManager.getCache(Constants.USERS_CACHE).get(viewerId));
+		assertNotNull(itemViewCache.getIfPresent(itemId));
+	}
+
+	private int createUser() throws Exception {
+		return create("/users", null, Map.of("name", "user", "email", UUID.randomUUID() + "@routing.ru"));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		var request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asInt();
+	}
+}
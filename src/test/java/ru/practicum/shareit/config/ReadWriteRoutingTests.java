@@ -0,0 +1,170 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadWriteRoutingTests {
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+	private RecentWriters recentWriters;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("routing-primary", "primary");
+		replica = database("routing-replica", "replica");
+		recentWriters = new RecentWriters(new DataSourceRoutingProperties());
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReadReplicaContext.clearUser();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	void readOnlyServiceCallsGoToReplica() {
+		DataSource dataSource = routing(new ReplicaSet(Map.of("replica-0", replica), "", Duration.ofSeconds(2)));
+
+		assertEquals("replica", readOnlyServiceCall(dataSource));
+	}
+
+	@Test
+	void writesAndRepositoryReadsStayOnPrimary() {
+		DataSource dataSource = routing(new ReplicaSet(Map.of("replica-0", replica), "", Duration.ofSeconds(2)));
+
+		assertEquals("primary", currentDatabase(dataSource, false));
+		assertEquals("primary", currentDatabase(dataSource, true));
+	}
+
+	@Test
+	void recentWriterReadsOwnWritesFromPrimary() {
+		DataSource dataSource = routing(new ReplicaSet(Map.of("replica-0", replica), "", Duration.ofSeconds(2)));
+		recentWriters.recordWrite(1);
+
+		ReadReplicaContext.setUser(1);
+		assertEquals("primary", readOnlyServiceCall(dataSource));
+		ReadReplicaContext.setUser(2);
+		assertEquals("replica", readOnlyServiceCall(dataSource));
+	}
+
+	@Test
+	void cacheLoadsGoToPrimary() {
+		DataSource dataSource = routing(new ReplicaSet(Map.of("replica-0", replica), "", Duration.ofSeconds(2)));
+
+		assertEquals("primary", inReadOnlyCall(() -> {
+			String database = ReadReplicaContext.onPrimary(() -> currentDatabase(dataSource, true));
+			assertFalse(ReadReplicaContext.isReplicaRead());
+			return database;
+		}));
+	}
+
+	@Test
+	void laggingReplicaIsTakenOutOfRotation() {
+		ReplicaSet replicas = new ReplicaSet(Map.of("replica-0", replica), "SELECT 10", Duration.ofSeconds(2));
+		DataSource dataSource = routing(replicas);
+
+		replicas.checkLag();
+
+		assertEquals("primary", readOnlyServiceCall(dataSource));
+	}
+
+	@Test
+	void readOnlyJpaTransactionGoesToReplicaAndIsMarked() {
+		DataSource dataSource = routing(new ReplicaSet(Map.of("replica-0", replica), "", Duration.ofSeconds(2)));
+		LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setPackagesToScan(ReadWriteRoutingTests.class.getPackageName());
+		factoryBean.afterPropertiesSet();
+		EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+		try {
+			JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+
+			// HibernateJpaDialect готовит соединение до того, как транзакция помечена read-only:
+			// маршрутизация держится на том, что физическое соединение берётся лениво
+			assertEquals("replica", inReadOnlyCall(() -> {
+				String database = currentDatabase(transactionManager, entityManagerFactory, true);
+				assertTrue(ReadReplicaContext.isReplicaRead());
+				return database;
+			}));
+			assertFalse(ReadReplicaContext.isReplicaRead());
+			assertEquals("primary", inReadOnlyCall(() ->
+					currentDatabase(transactionManager, entityManagerFactory, false)));
+			assertFalse(ReadReplicaContext.isReplicaRead());
+		} finally {
+			factoryBean.destroy();
+		}
+	}
+
+	private DataSource routing(ReplicaSet replicas) {
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas, recentWriters));
+	}
+
+	private String readOnlyServiceCall(DataSource dataSource) {
+		return inReadOnlyCall(() -> currentDatabase(dataSource, true));
+	}
+
+	private String inReadOnlyCall(Supplier<String> call) {
+		boolean outermost = ReadReplicaContext.enterReadOnlyCall();
+		try {
+			return call.get();
+		} finally {
+			ReadReplicaContext.exitReadOnlyCall(outermost);
+		}
+	}
+
+	private String currentDatabase(DataSource dataSource, boolean readOnly) {
+		return inTransaction(new DataSourceTransactionManager(dataSource), readOnly, () ->
+				new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class));
+	}
+
+	private String currentDatabase(PlatformTransactionManager transactionManager,
+								   EntityManagerFactory entityManagerFactory, boolean readOnly) {
+		return inTransaction(transactionManager, readOnly, () ->
+				(String) EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+						.createNativeQuery("SELECT name FROM marker")
+						.getSingleResult());
+	}
+
+	private String inTransaction(PlatformTransactionManager transactionManager, boolean readOnly,
+								 Supplier<String> query) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate.execute(status -> query.get());
+	}
+
+	private EmbeddedDatabase database(String databaseName, String marker) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(databaseName)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(16))");
+		jdbcTemplate.update("INSERT INTO marker VALUES (?)", marker);
+		return database;
+	}
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemAvailabilitySweepTests {
+	private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+	private static final LocalDateTime TO = FROM.plusDays(10);
+
+	@Test
+	void overlappingIntervalsLeaveOneGap() {
+		List<ItemAvailabilityDto> result = sweep(List.of(item(1, true)),
+				busy(1, 1, 4), busy(1, 2, 3), busy(1, 3, 6));
+
+		assertEquals(List.of(free(0, 1), free(6, 10)), result.getFirst().getFree());
+	}
+
+	@Test
+	void adjacentIntervalsLeaveNoGapBetweenThem() {
+		List<ItemAvailabilityDto> result = sweep(List.of(item(1, true)),
+				busy(1, 2, 4), busy(1, 4, 7));
+
+		assertEquals(List.of(free(0, 2), free(7, 10)), result.getFirst().getFree());
+	}
+
+	@Test
+	void intervalsCrossingTheWindowAreClipped() {
+		// Запрос возвращает интервалы, пересекающие окно, в том числе начавшиеся до него и кончающиеся после
+		List<ItemAvailabilityDto> result = sweep(List.of(item(1, true)),
+				busy(1, -3, 2), busy(1, 8, 15));
+
+		assertEquals(List.of(free(2, 8)), result.getFirst().getFree());
+	}
+
+	@Test
+	void intervalsAreAssignedToTheirItems() {
+		List<ItemAvailabilityDto> result = sweep(List.of(item(1, true), item(2, false), item(3, true)),
+				busy(1, 0, 10), busy(3, 5, 6));
+
+		assertEquals(3, result.size());
+		assertEquals(List.of(), result.get(0).getFree());
+		assertEquals(List.of(), result.get(1).getFree());
+		assertEquals(List.of(free(0, 5), free(6, 10)), result.get(2).getFree());
+	}
+
+	private List<ItemAvailabilityDto> sweep(List<ItemSnapshot> items, BookingRepository.BusyInterval... busy) {
+		return ItemServiceImpl.sweepFreeIntervals(items, List.of(busy), FROM, TO);
+	}
+
+	private ItemSnapshot item(int id, boolean available) {
+		return new ItemSnapshot(id, "item", "description", available, 1, null, 0);
+	}
+
+	private BookingRepository.BusyInterval busy(int itemId, int startDay, int endDay) {
+		return new Interval(itemId, FROM.plusDays(startDay), FROM.plusDays(endDay));
+	}
+
+	private ItemAvailabilityDto.FreeInterval free(int startDay, int endDay) {
+		return new ItemAvailabilityDto.FreeInterval(FROM.plusDays(startDay), FROM.plusDays(endDay));
+	}
+
+	private record Interval(Integer itemId, LocalDateTime start, LocalDateTime end)
+			implements BookingRepository.BusyInterval {
+		@Override
+		public Integer getItemId() {
+			return itemId;
+		}
+
+		@Override
+		public LocalDateTime getStart() {
+			return start;
+		}
+
+		@Override
+		public LocalDateTime getEnd() {
+			return end;
+		}
+	}
+}
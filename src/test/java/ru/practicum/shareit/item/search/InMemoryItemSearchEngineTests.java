@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTests {
+	private static final int ITEMS = 2000;
+	private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+	private final List<Integer> batchSizes = new ArrayList<>();
+	private InMemoryItemSearchEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		ItemRepository itemRepository = mock(ItemRepository.class);
+		// Свободны только вещи с чётным id
+		when(itemRepository.findFreeByIdIn(any(), any(), any())).thenAnswer(invocation -> {
+			Collection<Integer> ids = invocation.getArgument(0);
+			batchSizes.add(ids.size());
+			return ids.stream()
+					.filter(id -> id % 2 == 0)
+					.map(this::item)
+					.toList();
+		});
+		engine = new InMemoryItemSearchEngine(itemRepository);
+		for (int id = 1; id <= ITEMS; id++) {
+			engine.index(item(id));
+		}
+	}
+
+	@Test
+	void farPageIsCheckedInBoundedBatches() {
+		List<Item> page = engine.searchFree("дрель", START, START.plusDays(1), 600, 10);
+
+		assertEquals(List.of(1202, 1204, 1206, 1208, 1210, 1212, 1214, 1216, 1218, 1220),
+				page.stream().map(Item::getId).toList());
+		assertEquals(3, batchSizes.size());
+		assertTrue(batchSizes.stream().allMatch(size -> size <= InMemoryItemSearchEngine.FREE_CHECK_BATCH_SIZE));
+	}
+
+	@Test
+	void firstPageNeedsOneBatch() {
+		List<Item> page = engine.searchFree("дрель", START, START.plusDays(1), 0, 3);
+
+		assertEquals(List.of(2, 4, 6), page.stream().map(Item::getId).toList());
+		assertEquals(1, batchSizes.size());
+	}
+
+	private Item item(int id) {
+		return new Item(id, "Дрель", "Ударная", true, null, null, 0);
+	}
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item.view;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemViewCacheTests {
+	private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+	private ItemRepository itemRepository;
+	private CommentRepository commentRepository;
+	private BookingRepository bookingRepository;
+	private PlatformTransactionManager transactionManager;
+	private ItemViewCache cache;
+
+	@BeforeEach
+	void setUp() {
+		itemRepository = mock(ItemRepository.class);
+		bookingRepository = mock(BookingRepository.class);
+		commentRepository = mock(CommentRepository.class);
+		when(itemRepository.findSnapshotById(1))
+				.thenReturn(Optional.of(new ItemSnapshot(1, "Дрель", "Ударная", true, 10, null, 0)));
+		transactionManager = mock(PlatformTransactionManager.class);
+		cache = new ItemViewCache(new ItemViewProperties(), itemRepository, bookingRepository, commentRepository,
+				transactionManager, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void onlyMissOpensTransaction() {
+		cache.get(1);
+		cache.get(1);
+		cache.getIfPresent(1);
+
+		verify(transactionManager, times(1)).getTransaction(any());
+	}
+
+	@Test
+	void commentSeenByLoadIsNotAddedTwice() {
+		CommentDto comment = comment(5, 20);
+		when(commentRepository.findDtosByItemId(eq(1), any())).thenReturn(List.of(comment));
+
+		cache.get(1);
+		cache.onCommentAdded(1, comment, 1);
+
+		assertEquals(1, cache.get(1).getComments().size());
+		assertEquals(1, cache.get(1).getItem().getVersion());
+	}
+
+	@Test
+	void itemUpdateFromOlderVersionIsIgnored() {
+		cache.get(1);
+		cache.onCommentAdded(1, comment(5, 20), 2);
+
+		Item stale = new Item(1, "Старая дрель", "Ударная", true, new User(10, "Владелец", "owner@mail.ru", 0),
+				null, 1);
+		cache.onItemUpdated(stale);
+
+		assertEquals("Дрель", cache.get(1).getItem().getName());
+		assertEquals(2, cache.get(1).getItem().getVersion());
+	}
+
+	@Test
+	void bookingSeenByLoadIsNotAddedTwice() {
+		Booking booking = booking(7, NOW.plusDays(1), NOW.plusDays(2));
+		when(bookingRepository.findByItemIdAndEndGreaterThanEqualOrderByStartAsc(eq(1), any(), any()))
+				.thenReturn(List.of(booking));
+
+		cache.get(1);
+		cache.onBookingCreated(booking);
+
+		assertEquals(1, cache.get(1).getActiveBookings().size());
+	}
+
+	@Test
+	void activeBookingsAreCutAtHorizon() {
+		ItemViewProperties properties = new ItemViewProperties();
+		properties.setActiveBookings(1);
+		cache = new ItemViewCache(properties, itemRepository, bookingRepository, commentRepository,
+				transactionManager, new SimpleMeterRegistry());
+		when(bookingRepository.findByItemIdAndEndGreaterThanEqualOrderByStartAsc(eq(1), any(), any()))
+				.thenReturn(List.of(booking(7, NOW.plusDays(1), NOW.plusDays(2)),
+						booking(8, NOW.plusDays(3), NOW.plusDays(4))));
+
+		cache.get(1);
+		cache.onBookingCreated(booking(9, NOW.plusDays(5), NOW.plusDays(6)));
+
+		ItemView view = cache.getIfPresent(1);
+		assertEquals(List.of(7), view.getActiveBookings().stream().map(ItemView.BookingSlot::getId).toList());
+		assertEquals(NOW.plusDays(1), view.getBookingsHorizon());
+		assertTrue(view.isStaleAt(NOW.plusDays(1)));
+	}
+
+	@Test
+	void viewPastHorizonIsReloaded() {
+		ItemViewProperties properties = new ItemViewProperties();
+		properties.setActiveBookings(1);
+		cache = new ItemViewCache(properties, itemRepository, bookingRepository, commentRepository,
+				transactionManager, new SimpleMeterRegistry());
+		when(bookingRepository.findByItemIdAndEndGreaterThanEqualOrderByStartAsc(eq(1), any(), any()))
+				.thenReturn(List.of(booking(7, NOW.minusHours(1), NOW.plusHours(1)),
+						booking(8, NOW.plusDays(1), NOW.plusDays(2))));
+
+		cache.get(1);
+
+		assertNull(cache.getIfPresent(1));
+		cache.get(1);
+		verify(bookingRepository, times(2)).findByItemIdAndEndGreaterThanEqualOrderByStartAsc(eq(1), any(), any());
+	}
+
+	@Test
+	void authorRenameDropsViewsWithTheirComments() {
+		when(commentRepository.findDtosByItemId(eq(1), any())).thenReturn(List.of(comment(5, 20)));
+
+		cache.get(1);
+		cache.onUserRenamed(21);
+		cache.get(1);
+		verify(commentRepository, times(1)).findDtosByItemId(eq(1), any());
+
+		cache.onUserRenamed(20);
+		cache.get(1);
+		verify(commentRepository, times(2)).findDtosByItemId(eq(1), any());
+	}
+
+	private CommentDto comment(int id, int authorId) {
+		return new CommentDto(id, "Отлично", "Автор", NOW.minusDays(1), authorId);
+	}
+
+	private Booking booking(int id, LocalDateTime start, LocalDateTime end) {
+		Item item = new Item();
+		item.setId(1);
+		User booker = new User(30, "Арендатор", "booker@mail.ru", 0);
+		Booking booking = new Booking();
+		booking.setId(id);
+		booking.setItem(item);
+		booking.setBooker(booker);
+		booking.setStart(start);
+		booking.setEnd(end);
+		return booking;
+	}
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.util.Constants;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет планы SQL, которые Hibernate реально выполняет на основных эндпоинтах: каждый
+ * перехваченный SELECT проходит через EXPLAIN (GENERIC_PLAN) с выключенным enable_seqscan,
+ * и Seq Scan в плане означает, что подходящего индекса нет. База — PostgreSQL 16 из Testcontainers,
+ * поэтому тест идёт в обычном mvn test, если доступен Docker, а в CI — отдельной задачей
+ * mvn -Pplan-check test (.github/workflows/plan-check.yml).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "plan-check"})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTests {
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static final Set<String> STATEMENTS = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void executedSelectsUseIndexes() throws Exception {
+		int ownerId = createUser();
+		int bookerId = createUser();
+		int requestId = create("/requests", bookerId, Map.of("description", "Нужна дрель"));
+		LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+		int itemId = create("/items", ownerId, Map.of("name", "Дрель", "description", "Ударная",
+				"available", true, "requestId", requestId));
+		create("/bookings", bookerId, Map.of("itemId", itemId, "start", start.toString(),
+				"end", start.plusDays(1).toString()));
+
+		STATEMENTS.clear();
+		for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+			perform("/bookings?state=" + state, bookerId);
+			perform("/bookings/owner?state=" + state, ownerId);
+			perform("/bookings?state=" + state + "&cursorStart=" + start + "&cursorId=1000000", bookerId);
+		}
+		perform("/items", ownerId);
+		perform("/items/" + itemId, ownerId);
+		perform("/items/" + itemId + "/comments", bookerId);
+		perform("/items/" + itemId + "/availability?from=" + start + "&to=" + start.plusDays(7), bookerId);
+		perform("/items/availability?from=" + start + "&to=" + start.plusDays(7), ownerId);
+		perform("/items/search?text=дрель", bookerId);
+		perform("/items/search?text=дрель&start=" + start + "&end=" + start.plusDays(7), bookerId);
+		perform("/requests", bookerId);
+		perform("/requests/all", ownerId);
+		perform("/requests/" + requestId, ownerId);
+
+		List<String> seqScans = transactionTemplate.execute(status -> {
+			jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+			List<String> failures = new ArrayList<>();
+			for (String sql : STATEMENTS) {
+				String plan = String.join("\n",
+						jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+				if (plan.contains("Seq Scan")) {
+					failures.add(sql + "\n" + plan);
+				}
+			}
+			status.setRollbackOnly();
+			return failures;
+		});
+
+		assertTrue(seqScans.isEmpty(), "Запросы без индекса:\n" + String.join("\n\n", seqScans));
+	}
+
+	// EXPLAIN GENERIC_PLAN принимает параметры только в виде $1, $2, ...
+	private String numberParameters(String sql) {
+		StringBuilder result = new StringBuilder(sql.length());
+		int parameter = 0;
+		for (char symbol : sql.toCharArray()) {
+			if (symbol == '?') {
+				result.append('$').append(++parameter);
+			} else {
+				result.append(symbol);
+			}
+		}
+		return result.toString();
+	}
+
+	private void perform(String uri, int userId) throws Exception {
+		mockMvc.perform(get(uri).header(Constants.HEAD, userId)).andExpect(status().isOk());
+	}
+
+	private int createUser() throws Exception {
+		return create("/users", null, Map.of("name", "user", "email", UUID.randomUUID() + "@plan.ru"));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		var request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asInt();
+	}
+
+	@TestConfiguration
+	static class CaptureConfig {
+		@Bean
+		@Order(Ordered.LOWEST_PRECEDENCE)
+		HibernatePropertiesCustomizer capturingStatementInspector() {
+			return properties -> {
+				StatementInspector delegate = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+				properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+					String trimmed = sql.strip().toLowerCase();
+					if (trimmed.startsWith("select") || trimmed.startsWith("with")) {
+						STATEMENTS.add(sql);
+					}
+					return delegate == null ? sql : delegate.inspect(sql);
+				});
+			};
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.StatementBudgetExceededException;
+import ru.practicum.shareit.util.Constants;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementBudgetTests {
+	private static final int ITEMS = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void listEndpointsStayWithinStatementBudget() throws Exception {
+		int ownerId = createUser();
+		int bookerId = createUser();
+		LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+		int itemId = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			itemId = create("/items", ownerId, Map.of("name", "Дрель " + i, "description", "Ударная", "available", true));
+			create("/bookings", bookerId, Map.of("itemId", itemId, "start", start.toString(),
+					"end", start.plusDays(1).toString()));
+		}
+
+		mockMvc.perform(get("/items").header(Constants.HEAD, ownerId)).andExpect(status().isOk());
+		mockMvc.perform(get("/items/" + itemId).header(Constants.HEAD, ownerId)).andExpect(status().isOk());
+		mockMvc.perform(get("/bookings").header(Constants.HEAD, bookerId)).andExpect(status().isOk());
+		mockMvc.perform(get("/bookings/owner").header(Constants.HEAD, ownerId)).andExpect(status().isOk());
+		mockMvc.perform(get("/bookings/owner").param("state", "FUTURE").header(Constants.HEAD, ownerId))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void repeatedSelectFailsInFailMode() {
+		RequestStatements.begin();
+		try {
+			RequestStatements.applyBudget(new StatementBudget("GET /test", 20, 2, StatementBudgetProperties.Mode.FAIL));
+			RequestStatements.record("select u.id from users u where u.id=?");
+			RequestStatements.record("select u.id from users u where u.id=?");
+			assertThrows(StatementBudgetExceededException.class,
+					() -> RequestStatements.record("select u.id from users u where u.id=?"));
+		} finally {
+			RequestStatements.end();
+		}
+	}
+
+	@Test
+	void endpointBudgetKeyKeepsPathInBrackets() {
+		Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+				"shareit.sql.budget.endpoints.[GET /items/{itemId}]", "30",
+				"shareit.sql.budget.endpoints.GET /bookings/{bookingId}", "40")));
+
+		Map<String, Integer> endpoints = binder.bind("shareit.sql.budget", StatementBudgetProperties.class)
+				.get().getEndpoints();
+
+		assertEquals(30, endpoints.get("GET /items/{itemId}"));
+		// Без скобок ключ теряет пробел, слэши и фигурные скобки
+		assertFalse(endpoints.containsKey("GET /bookings/{bookingId}"));
+	}
+
+	private int createUser() throws Exception {
+		String email = UUID.randomUUID() + "@budget.ru";
+		return create("/users", null, Map.of("name", "user", "email", email));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		var request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		JsonNode node = objectMapper.readTree(response);
+		return node.get("id").asInt();
+	}
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailBloomFilterTests {
+	private UserRepository userRepository;
+	private EmailBloomFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		EmailFilterProperties properties = new EmailFilterProperties();
+		properties.setExpectedInsertions(1000);
+		filter = new EmailBloomFilter(userRepository, properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void everythingIsPositiveUntilBuilt() {
+		assertTrue(filter.mightContain("nobody@mail.ru"));
+	}
+
+	@Test
+	void loadedAndPutEmailsArePositive() {
+		when(userRepository.findEmailsAfter(eq(0), any())).thenReturn(List.of(email(1, "first@mail.ru")));
+		filter.rebuild();
+		filter.put("second@mail.ru");
+
+		assertTrue(filter.mightContain("first@mail.ru"));
+		assertTrue(filter.mightContain("second@mail.ru"));
+		assertFalse(filter.mightContain("nobody@mail.ru"));
+	}
+
+	@Test
+	void emailPutDuringRebuildSurvivesTheSwap() {
+		when(userRepository.findEmailsAfter(eq(0), any())).thenAnswer(invocation -> {
+			// Регистрация, закоммиченная после того, как пересборка прочитала свою страницу
+			filter.put("concurrent@mail.ru");
+			return List.of(email(1, "first@mail.ru"));
+		});
+
+		filter.rebuild();
+
+		assertTrue(filter.mightContain("first@mail.ru"));
+		assertTrue(filter.mightContain("concurrent@mail.ru"));
+	}
+
+	private UserRepository.UserEmail email(int id, String email) {
+		return new UserRepository.UserEmail() {
+			@Override
+			public Integer getId() {
+				return id;
+			}
+
+			@Override
+			public String getEmail() {
+				return email;
+			}
+		};
+	}
+}
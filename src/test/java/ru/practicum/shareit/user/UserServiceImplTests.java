@@ -0,0 +1,54 @@
+package ru.practicum.shareit.user;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+	private UserRepository userRepository;
+	private UserServiceImpl userService;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		EmailBloomFilter emailBloomFilter = mock(EmailBloomFilter.class);
+		when(emailBloomFilter.mightContain(any())).thenReturn(false);
+		userService = new UserServiceImpl(userRepository, mock(UserSnapshotCache.class), emailBloomFilter,
+				mock(ItemViewCache.class));
+	}
+
+	@Test
+	void emailConstraintViolationIsConflict() {
+		when(userRepository.save(any())).thenThrow(violation("UQ_USER_EMAIL"));
+
+		assertThrows(ConflictException.class, () -> userService.createUser(new User(null, "user", "a@mail.ru", null)));
+	}
+
+	@Test
+	void otherIntegrityViolationsAreRethrown() {
+		DataIntegrityViolationException exception = violation("CK_USER_NAME");
+		when(userRepository.save(any())).thenThrow(exception);
+
+		DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+				() -> userService.createUser(new User(null, "user", "a@mail.ru", null)));
+		assertSame(exception, thrown);
+	}
+
+	private DataIntegrityViolationException violation(String constraint) {
+		SQLException sqlException = new SQLException("violates constraint " + constraint, "23505");
+		return new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("could not execute statement", sqlException, constraint));
+	}
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ETagsTests {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void weakAndListedTagsMatch() {
+		assertTrue(ETags.matches("W/\"1-2\"", "1-2"));
+		assertTrue(ETags.matches("\"0-0\", \"1-2\"", "1-2"));
+		assertTrue(ETags.matches("*", "1-2"));
+		assertFalse(ETags.matches("\"1-1\"", "1-2"));
+		assertFalse(ETags.matches("\"1-2\"", null));
+	}
+
+	@Test
+	void userTagChangesWithTheBody() throws Exception {
+		int userId = createUser();
+		String etag = etag(get("/users/" + userId));
+
+		mockMvc.perform(get("/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(patch("/users/" + userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"renamed\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("renamed"));
+	}
+
+	@Test
+	void itemTagComesFromTheServedView() throws Exception {
+		int ownerId = createUser();
+		int userId = createUser();
+		int itemId = create("/items", ownerId, Map.of("name", "Дрель", "description", "Ударная", "available", true));
+
+		for (int viewer : new int[]{ownerId, userId}) {
+			String etag = etag(get("/items/" + itemId).header(Constants.HEAD, viewer));
+			mockMvc.perform(get("/items/" + itemId).header(Constants.HEAD, viewer)
+							.header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified());
+		}
+
+		String before = etag(get("/items/" + itemId).header(Constants.HEAD, userId));
+		mockMvc.perform(patch("/items/" + itemId).header(Constants.HEAD, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"description\":\"Аккумуляторная\"}"))
+				.andExpect(status().isOk());
+		String after = etag(get("/items/" + itemId).header(Constants.HEAD, userId)
+				.header(HttpHeaders.IF_NONE_MATCH, before));
+
+		assertNotEquals(before, after);
+	}
+
+	private String etag(RequestBuilder request) throws Exception {
+		return mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private int createUser() throws Exception {
+		return create("/users", null, Map.of("name", "user", "email", UUID.randomUUID() + "@etag.ru"));
+	}
+
+	private int create(String path, Integer userId, Map<String, Object> body) throws Exception {
+		var request = post(path)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body));
+		if (userId != null) {
+			request.header(Constants.HEAD, userId);
+		}
+		String response = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asInt();
+	}
+}
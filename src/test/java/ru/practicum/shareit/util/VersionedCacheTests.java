@@ -0,0 +1,61 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionedCacheTests {
+	private VersionedCache<Integer, UserSnapshot> cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new VersionedCache<>(new CaffeineCacheManager(Constants.USERS_CACHE), Constants.USERS_CACHE,
+				UserSnapshot::getVersion);
+	}
+
+	@Test
+	void olderSnapshotDoesNotReplaceNewerOne() {
+		cache.put(1, user("new", 2));
+		cache.put(1, user("old", 1));
+
+		assertEquals("new", cache.get(1, id -> Optional.empty()).orElseThrow().getName());
+	}
+
+	@Test
+	void loadsOnceAndServesFromCache() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(1, id -> {
+			loads.incrementAndGet();
+			return Optional.of(user("a", 0));
+		});
+		cache.get(1, id -> {
+			loads.incrementAndGet();
+			return Optional.of(user("b", 0));
+		});
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void snapshotLoadedBeforeEvictionIsNotCached() {
+		Optional<UserSnapshot> loaded = cache.get(1, id -> {
+			cache.evict(1);
+			return Optional.of(user("deleted", 0));
+		});
+
+		assertTrue(loaded.isPresent());
+		assertTrue(cache.get(1, id -> Optional.empty()).isEmpty());
+	}
+
+	private UserSnapshot user(String name, int version) {
+		return new UserSnapshot(1, name, name + "@mail.ru", version);
+	}
+}